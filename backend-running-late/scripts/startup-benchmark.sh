@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# Compares time-to-first-response and resident memory of the JVM and native builds.
+#
+#   ./gradlew bootJar nativeCompile
+#   SPRING_DATASOURCE_URL=... SPRING_DATASOURCE_USERNAME=... SPRING_DATASOURCE_PASSWORD=... \
+#       scripts/startup-benchmark.sh [runs]
+#
+# Each run starts the app, polls /actuator/health on the management port until it answers,
+# records the elapsed wall time and VmRSS at that point, then stops the process. A run that
+# is not up within STARTUP_TIMEOUT seconds fails the script.
+#
+# LOADER_PATH adds jars to the JVM run, e.g. the H2 driver to measure without a PostgreSQL:
+#   LOADER_PATH=h2.jar SPRING_DATASOURCE_URL='jdbc:h2:mem:bench;MODE=PostgreSQL' \
+#       SPRING_JPA_HIBERNATE_DDL_AUTO=create GOOGLE_API_KEY=unused scripts/startup-benchmark.sh
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+MANAGEMENT_PORT="${MANAGEMENT_PORT:-18090}"
+STARTUP_TIMEOUT="${STARTUP_TIMEOUT:-60}"
+JAR="$(ls build/libs/*-SNAPSHOT.jar 2>/dev/null | grep -v plain | head -n 1 || true)"
+NATIVE="build/native/nativeCompile/backend-running-late"
+
+now_ms() {
+    date +%s%3N
+}
+
+measure() {
+    local label="$1"
+    shift
+    local total_ms=0 total_rss=0
+
+    for ((i = 1; i <= RUNS; i++)); do
+        local start
+        start="$(now_ms)"
+        "$@" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" >/dev/null 2>&1 &
+        local pid=$!
+
+        # Health needs no token or cluster secret, and answers once the context is up
+        until curl -sf -o /dev/null "http://localhost:$MANAGEMENT_PORT/actuator/health"; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$label exited before serving requests" >&2
+                exit 1
+            fi
+            if (($(now_ms) - start > STARTUP_TIMEOUT * 1000)); then
+                echo "$label did not answer within ${STARTUP_TIMEOUT}s" >&2
+                kill "$pid"
+                exit 1
+            fi
+            sleep 0.01
+        done
+
+        local elapsed=$(($(now_ms) - start))
+        local rss
+        rss="$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")"
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+
+        total_ms=$((total_ms + elapsed))
+        total_rss=$((total_rss + rss))
+    done
+
+    printf '%-7s first response %6d ms   RSS %6d MB   (mean of %d runs)\n' \
+        "$label" $((total_ms / RUNS)) $((total_rss / RUNS / 1024)) "$RUNS"
+}
+
+if [[ -n "$JAR" && -n "${LOADER_PATH:-}" ]]; then
+    measure jvm java -cp "$JAR" -Dloader.path="$LOADER_PATH" org.springframework.boot.loader.launch.PropertiesLauncher
+elif [[ -n "$JAR" ]]; then
+    measure jvm java -jar "$JAR"
+else
+    echo "No boot jar found, run ./gradlew bootJar" >&2
+fi
+
+if [[ -x "$NATIVE" ]]; then
+    measure native "$NATIVE"
+else
+    echo "No native image found, run ./gradlew nativeCompile" >&2
+fi
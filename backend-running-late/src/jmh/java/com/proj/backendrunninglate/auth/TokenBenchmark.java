@@ -0,0 +1,36 @@
+package com.proj.backendrunninglate.auth;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost: issuing and verifying a signed token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenBenchmark {
+
+    private final TokenCodec codec = new TokenCodec("0123456789abcdef0123456789abcdef".getBytes());
+    private final TokenClaims claims = new TokenClaims(42, "runner@example.com", 7, 0, Long.MAX_VALUE);
+    private final RevocationCache revocationCache = new RevocationCache(1000);
+    private String token;
+
+    @Setup
+    public void issue() {
+        token = codec.encode(claims);
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(claims);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        Optional<TokenClaims> verified = codec.decode(token, System.currentTimeMillis());
+        return verified.isPresent() && !revocationCache.isRevoked(verified.get());
+    }
+}
@@ -0,0 +1,59 @@
+package com.proj.backendrunninglate.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.models.PastRun;
+import com.proj.backendrunninglate.responses.AccountResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile endpoint cost outside the database: entity to DTO mapping in
+ * {@link AccountService#getAccount} and Jackson serialisation of the result,
+ * configured the way Spring Boot configures the web ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountResponseBenchmark {
+
+    @Param({"0", "10", "100", "1000"})
+    public int pastRunCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private Account account;
+    private List<PastRun> pastRuns;
+    private AccountResponse response;
+
+    @Setup
+    public void createHistory() {
+        account = new Account("runner@example.com", "Runner", "secret");
+        pastRuns = new ArrayList<>(pastRunCount);
+        long day = 24L * 60 * 60 * 1000;
+        for (int i = 0; i < pastRunCount; i++) {
+            pastRuns.add(new PastRun(45.5048 + i * 1e-4, -73.5772, 45.5017, -73.5673 - i * 1e-4,
+                    1200 + i, "5:" + (10 + i % 50) + " min/km", new Date(1_700_000_000_000L + i * day)));
+        }
+        response = AccountService.toAccountResponse(account, pastRuns);
+    }
+
+    @Benchmark
+    public AccountResponse mapToResponse() {
+        return AccountService.toAccountResponse(account, pastRuns);
+    }
+
+    @Benchmark
+    public byte[] serialiseResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,23 @@
+package com.proj.backendrunninglate.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaceCalculationBenchmark {
+
+    private final PaceCalculationService paceCalculationService = new PaceCalculationService();
+    private final Date now = new Date(1_700_000_000_000L);
+    private final Date neededArrivalTime = new Date(1_700_000_000_000L + 23 * 60 * 1000);
+    private int remainingMeters = 4043;
+
+    @Benchmark
+    public String requiredPace() {
+        return paceCalculationService.formatPace(
+                paceCalculationService.requiredSecondsPerKm(remainingMeters, now, neededArrivalTime));
+    }
+}
@@ -0,0 +1,41 @@
+package com.proj.backendrunninglate.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.backendrunninglate.web.RawJson;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route JSON handling on the run start and ping paths: building the Routes
+ * API request body and pulling the distance out of the response, both with
+ * the same {@link NavigationService} helpers the endpoints call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RouteJsonBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RawJson routeResponse;
+
+    @Setup
+    public void loadRoute() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/route.json")) {
+            routeResponse = new RawJson(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialiseRequestBody() throws IOException {
+        return objectMapper.writeValueAsBytes(NavigationService.routesRequestBody(45.5048, -73.5772, 45.5017, -73.5673));
+    }
+
+    @Benchmark
+    public int parseDistance() throws IOException {
+        return NavigationService.distanceMeters(objectMapper, routeResponse);
+    }
+}
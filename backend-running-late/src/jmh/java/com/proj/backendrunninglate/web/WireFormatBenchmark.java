@@ -0,0 +1,132 @@
+package com.proj.backendrunninglate.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.proj.backendrunninglate.responses.AccountResponse;
+import com.proj.backendrunninglate.responses.PastRunResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Server-side cost and size of one response per wire format: the profile with
+ * its run history, and a Routes API payload passed through as {@link RawJson}.
+ * {@code wireBytes} is the encoded size of a single response, after gzip for
+ * the compressed variants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"json", "json+gzip", "cbor", "cbor+gzip"})
+    public String format;
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .factory(new CBORFactory())
+            .build();
+    private final RawJsonHttpMessageConverter rawJsonConverter = new RawJsonHttpMessageConverter();
+
+    private RawJson route;
+    private boolean cbor;
+    private boolean gzip;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long wireBytes;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Profile {
+
+        @Param({"10", "100"})
+        public int pastRunCount;
+
+        private AccountResponse response;
+
+        @Setup
+        public void createHistory() {
+            List<PastRunResponse> pastRuns = new ArrayList<>(pastRunCount);
+            long day = 24L * 60 * 60 * 1000;
+            for (int i = 0; i < pastRunCount; i++) {
+                pastRuns.add(new PastRunResponse(45.5048 + i * 1e-4, -73.5772, 45.5017, -73.5673 - i * 1e-4,
+                        1200 + i, "5:" + (10 + i % 50) + " min/km", new Date(1_700_000_000_000L + i * day)));
+            }
+            response = new AccountResponse("Runner", "runner@example.com", pastRuns);
+        }
+    }
+
+    @Setup
+    public void loadRoute() throws IOException {
+        cbor = format.startsWith("cbor");
+        gzip = format.endsWith("+gzip");
+
+        try (InputStream in = getClass().getResourceAsStream("/route.json")) {
+            route = new RawJson(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public byte[] profile(Profile profile, Size size) throws IOException {
+        ObjectMapper mapper = cbor ? cborMapper : jsonMapper;
+        byte[] encoded = mapper.writeValueAsBytes(profile.response);
+        return measured(gzip ? gzip(encoded) : encoded, size);
+    }
+
+    @Benchmark
+    public byte[] route(Size size) throws IOException {
+        BufferedOutputMessage message = new BufferedOutputMessage();
+        rawJsonConverter.write(route, cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON, message);
+        byte[] encoded = message.body.toByteArray();
+        return measured(gzip ? gzip(encoded) : encoded, size);
+    }
+
+    // Overwritten rather than accumulated, so the reported value is the size of one response
+    private static byte[] measured(byte[] encoded, Size size) {
+        size.wireBytes = encoded.length;
+        return encoded;
+    }
+
+    private static byte[] gzip(byte[] encoded) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(encoded);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.proj.backendrunninglate;
+
+import com.proj.backendrunninglate.concurrency.Bulkhead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BulkheadConfig {
+
+    // A slow Routes API ties up at most this many request threads; past it callers get a 503 after max-wait
+    // instead of queueing. The calls hold no database connection, so the cap bounds upstream throughput
+    // (max-concurrent / latency, about 30 lookups/s at 250 ms) rather than pool usage
+    @Bean
+    public Bulkhead routesBulkhead(
+            @Value("${bulkhead.routes.max-concurrent:8}") int maxConcurrent,
+            @Value("${bulkhead.routes.max-wait-ms:50}") long maxWaitMillis
+    ) {
+        return new Bulkhead("routes", maxConcurrent, maxWaitMillis);
+    }
+}
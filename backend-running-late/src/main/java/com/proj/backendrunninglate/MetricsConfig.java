@@ -0,0 +1,69 @@
+package com.proj.backendrunninglate;
+
+import com.proj.backendrunninglate.cluster.LiveRunRegistry;
+import com.proj.backendrunninglate.concurrency.AdaptiveConcurrencyLimiter;
+import com.proj.backendrunninglate.concurrency.Bulkhead;
+import com.proj.backendrunninglate.metrics.StatementCountInterceptor;
+import com.proj.backendrunninglate.metrics.StatementCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementCountInterceptor(meterRegistry));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public MeterBinder liveRunMetrics(LiveRunRegistry liveRunRegistry) {
+        return registry -> Gauge.builder("runs.active", liveRunRegistry, LiveRunRegistry::size)
+                .description("Active runs held in memory by this instance")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder admissionMetrics(AdaptiveConcurrencyLimiter limiter) {
+        return registry -> {
+            Gauge.builder("admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("admission.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests currently admitted")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(List<Bulkhead> bulkheads) {
+        return registry -> {
+            for (Bulkhead bulkhead : bulkheads) {
+                Gauge.builder("bulkhead.in.flight", bulkhead, Bulkhead::getInFlight)
+                        .description("Calls currently holding a bulkhead permit")
+                        .tag("name", bulkhead.getName())
+                        .register(registry);
+            }
+        };
+    }
+}
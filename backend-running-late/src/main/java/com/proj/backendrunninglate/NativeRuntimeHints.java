@@ -0,0 +1,63 @@
+package com.proj.backendrunninglate;
+
+import com.proj.backendrunninglate.cluster.LiveRunState;
+import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.models.ActiveRun;
+import com.proj.backendrunninglate.models.MailOutbox;
+import com.proj.backendrunninglate.models.PastRun;
+import com.proj.backendrunninglate.models.RunResults;
+import com.proj.backendrunninglate.repositories.ProfileVersion;
+import com.proj.backendrunninglate.requests.AccountRequest;
+import com.proj.backendrunninglate.requests.GenericRouteRequest;
+import com.proj.backendrunninglate.requests.LoginRequest;
+import com.proj.backendrunninglate.requests.RouteRequest;
+import com.proj.backendrunninglate.requests.SaveRunRequest;
+import com.proj.backendrunninglate.requests.StartRunRequest;
+import com.proj.backendrunninglate.responses.AccountResponse;
+import com.proj.backendrunninglate.responses.PaceResponse;
+import com.proj.backendrunninglate.responses.PaceStatus;
+import com.proj.backendrunninglate.responses.PastRunResponse;
+import com.proj.backendrunninglate.responses.TokenResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for the native image. Controllers return {@code ResponseEntity<?>},
+ * so AOT cannot infer the response types Jackson has to bind, and the Lombok
+ * entities are instantiated and populated reflectively by Hibernate.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final Class<?>[] ENTITIES = {
+            Account.class, ActiveRun.class, MailOutbox.class, PastRun.class, RunResults.class
+    };
+
+    // Built by Hibernate from JPQL constructor expressions
+    static final Class<?>[] PROJECTIONS = {
+            ProfileVersion.class
+    };
+
+    static final Class<?>[] JSON_TYPES = {
+            AccountRequest.class, GenericRouteRequest.class, LoginRequest.class, RouteRequest.class, SaveRunRequest.class,
+            StartRunRequest.class, AccountResponse.class, PaceResponse.class, PaceStatus.class, PastRunResponse.class,
+            TokenResponse.class,
+            LiveRunState.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (Class<?> projection : PROJECTIONS) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+    }
+}
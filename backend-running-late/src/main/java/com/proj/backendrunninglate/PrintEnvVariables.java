@@ -1,14 +1,16 @@
 package com.proj.backendrunninglate;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
-import java.lang.management.ManagementFactory;
-
 @Component
 public class PrintEnvVariables implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(PrintEnvVariables.class);
+
     private final Environment env;
 
     public PrintEnvVariables(Environment env) {
@@ -17,10 +19,9 @@ public class PrintEnvVariables implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        System.out.println("SPRING_DATASOURCE_URL: " + env.getProperty("SPRING_DATASOURCE_URL"));
-        System.out.println("SPRING_DATASOURCE_USERNAME: " + env.getProperty("SPRING_DATASOURCE_USERNAME"));
-        System.out.println("SPRING_DATASOURCE_PASSWORD: " + env.getProperty("SPRING_DATASOURCE_PASSWORD"));
-        String pid = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
-        System.out.println("Application PID: " + pid);
+        log.info("Datasource {} as {}, application PID {}",
+                env.getProperty("SPRING_DATASOURCE_URL"),
+                env.getProperty("SPRING_DATASOURCE_USERNAME"),
+                ProcessHandle.current().pid());
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,34 @@
 package com.proj.backendrunninglate;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${http.client.connect-timeout-ms:2000}") long connectTimeoutMillis,
+            @Value("${http.client.read-timeout-ms:10000}") long readTimeoutMillis
+    ) {
+        HttpClient.Builder client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+        if (virtualThreads) {
+            client.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(client.build());
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        return builder.requestFactory(() -> requestFactory).build();
     }
 }
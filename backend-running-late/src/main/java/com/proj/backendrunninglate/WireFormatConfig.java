@@ -0,0 +1,27 @@
+package com.proj.backendrunninglate;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.proj.backendrunninglate.web.RawJsonHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR for clients that send {@code Accept: application/cbor}. JSON stays the
+ * default: the CBOR converter replaces Spring's own in place, after the JSON one.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    // Built from Boot's builder so CBOR responses carry the same field names and date format as JSON ones
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public RawJsonHttpMessageConverter rawJsonHttpMessageConverter() {
+        return new RawJsonHttpMessageConverter();
+    }
+}
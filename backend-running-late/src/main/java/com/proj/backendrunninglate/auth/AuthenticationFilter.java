@@ -0,0 +1,90 @@
+package com.proj.backendrunninglate.auth;
+
+import com.proj.backendrunninglate.cluster.ClusterSecretFilter;
+import com.proj.backendrunninglate.services.AuthenticationService;
+import com.proj.backendrunninglate.web.AccountKeyFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Verifies bearer tokens and checks that the account named in the path or body
+ * is the one the token was issued to. With {@code auth.required=false} requests
+ * without a token still pass, so existing clients keep working during rollout.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 105)
+public class AuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String CLAIMS_ATTRIBUTE = AuthenticationFilter.class.getName() + ".claims";
+
+    private static final String BEARER = "Bearer ";
+
+    private final AuthenticationService authenticationService;
+    private final boolean required;
+
+    public AuthenticationFilter(
+            AuthenticationService authenticationService,
+            @Value("${auth.required:false}") boolean required
+    ) {
+        this.authenticationService = authenticationService;
+        this.required = required;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = AccountKeyFilter.pathOf(request);
+        // Cluster endpoints are for peers, which ClusterSecretFilter has already checked
+        return path.startsWith("/auth/") || path.equals("/accounts/create")
+                || (path.startsWith("/cluster/") && ClusterSecretFilter.isPeer(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null) {
+            if (required) {
+                reject(response, HttpStatus.UNAUTHORIZED, "Missing bearer token");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<TokenClaims> claims = authorization.startsWith(BEARER)
+                ? authenticationService.verify(authorization.substring(BEARER.length()))
+                : Optional.empty();
+        if (claims.isEmpty()) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+            return;
+        }
+
+        // Fails closed: a body the filter could not read may still bind in the controller, so no account means no access
+        if (AccountKeyFilter.namesAccount(request) && !claims.get().email().equals(AccountKeyFilter.accountOf(request))) {
+            reject(response, HttpStatus.FORBIDDEN, "Token does not belong to this account");
+            return;
+        }
+
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims.get());
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\": \"" + message + "\"}");
+    }
+}
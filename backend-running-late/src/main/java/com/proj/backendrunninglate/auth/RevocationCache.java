@@ -0,0 +1,48 @@
+package com.proj.backendrunninglate.auth;
+
+import com.proj.backendrunninglate.concurrency.BulkheadFullException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token ids revoked before their expiry. Entries only live until the token
+ * would have expired anyway, so the cache holds the logouts of one token
+ * lifetime, and never more than {@code auth.revocation.max-entries}: past that
+ * a logout is refused until the sweep frees room. In cluster mode logouts are
+ * pushed to the current members; an instance that was unreachable at the time,
+ * or joins later, accepts the token until it expires.
+ */
+@Component
+public class RevocationCache {
+
+    private final ConcurrentHashMap<Long, Long> revoked = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public RevocationCache(@Value("${auth.revocation.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public void revoke(TokenClaims claims) {
+        if (revoked.size() >= maxEntries) {
+            evictExpired();
+            // Dropping an older entry would quietly revive a logged out token; refusing lets the client retry
+            if (revoked.size() >= maxEntries && !revoked.containsKey(claims.tokenId())) {
+                throw new BulkheadFullException("token revocation");
+            }
+        }
+        revoked.put(claims.tokenId(), claims.expiresAtMillis());
+    }
+
+    public boolean isRevoked(TokenClaims claims) {
+        return !revoked.isEmpty() && revoked.containsKey(claims.tokenId());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+}
@@ -0,0 +1,4 @@
+package com.proj.backendrunninglate.auth;
+
+public record TokenClaims(long accountId, String email, long tokenId, long issuedAtMillis, long expiresAtMillis) {
+}
@@ -0,0 +1,91 @@
+package com.proj.backendrunninglate.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Compact HMAC-SHA256 signed tokens: {@code base64url(payload).base64url(mac)}
+ * where the payload is a fixed binary header followed by the account email.
+ * Verification is a MAC over a few dozen bytes, with no database involved.
+ */
+public class TokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 1 + 4 * Long.BYTES;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac prototype;
+
+    public TokenCodec(byte[] key) {
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    public String encode(TokenClaims claims) {
+        byte[] email = claims.email().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(HEADER_BYTES + email.length)
+                .put(VERSION)
+                .putLong(claims.accountId())
+                .putLong(claims.tokenId())
+                .putLong(claims.issuedAtMillis())
+                .putLong(claims.expiresAtMillis())
+                .put(email)
+                .array();
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(mac().doFinal(payload));
+    }
+
+    public Optional<TokenClaims> decode(String token, long nowMillis) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (payload.length < HEADER_BYTES || payload[0] != VERSION
+                || !MessageDigest.isEqual(signature, mac().doFinal(payload))) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 1, payload.length - 1);
+        long accountId = buffer.getLong();
+        long tokenId = buffer.getLong();
+        long issuedAt = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        if (expiresAt <= nowMillis) {
+            return Optional.empty();
+        }
+
+        String email = new String(payload, HEADER_BYTES, payload.length - HEADER_BYTES, StandardCharsets.UTF_8);
+        return Optional.of(new TokenClaims(accountId, email, tokenId, issuedAt, expiresAt));
+    }
+
+    // Mac is not thread-safe; cloning the keyed prototype skips provider lookup and key setup
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC-SHA256 provider does not support cloning", e);
+        }
+    }
+}
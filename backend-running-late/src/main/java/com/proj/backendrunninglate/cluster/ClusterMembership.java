@@ -0,0 +1,109 @@
+package com.proj.backendrunninglate.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+public class ClusterMembership {
+
+    private final boolean enabled;
+    private final String self;
+    private final int virtualNodes;
+    private final boolean redirect;
+    private final byte[] secret;
+    private final List<Consumer<ConsistentHashRing>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile ConsistentHashRing ring;
+
+    public ClusterMembership(
+            @Value("${cluster.enabled:false}") boolean enabled,
+            @Value("${cluster.self:http://localhost:8080}") String self,
+            @Value("${cluster.members:}") List<String> members,
+            @Value("${cluster.virtual-nodes:128}") int virtualNodes,
+            @Value("${cluster.mode:forward}") String mode,
+            @Value("${cluster.secret:}") String secret
+    ) {
+        this.enabled = enabled;
+        this.self = normalise(self);
+        this.virtualNodes = virtualNodes;
+        this.redirect = "redirect".equalsIgnoreCase(mode);
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        List<String> initial = normaliseAll(members);
+        if (!initial.contains(this.self)) {
+            initial.add(this.self);
+        }
+        this.ring = new ConsistentHashRing(initial, virtualNodes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isRedirect() {
+        return redirect;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public String getSecret() {
+        return new String(secret, StandardCharsets.UTF_8);
+    }
+
+    // Without a configured secret no peer is trusted, so cluster endpoints stay closed
+    public boolean isTrustedPeer(String presented) {
+        return secret.length > 0 && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<String> getMembers() {
+        return ring.getMembers();
+    }
+
+    public String ownerOf(String email) {
+        return enabled ? ring.ownerOf(email) : self;
+    }
+
+    public boolean isOwnedLocally(String email) {
+        return self.equals(ownerOf(email));
+    }
+
+    public void addListener(Consumer<ConsistentHashRing> listener) {
+        listeners.add(listener);
+    }
+
+    // A member list without this instance drains it: every local run is handed to its new owner
+    public synchronized void updateMembers(List<String> members) {
+        List<String> updated = normaliseAll(members);
+        if (updated.isEmpty()) {
+            updated.add(self);
+        }
+        ring = new ConsistentHashRing(updated, virtualNodes);
+        for (Consumer<ConsistentHashRing> listener : listeners) {
+            listener.accept(ring);
+        }
+    }
+
+    private static List<String> normaliseAll(List<String> members) {
+        List<String> all = new ArrayList<>();
+        for (String member : members) {
+            if (!member.isBlank() && !all.contains(normalise(member))) {
+                all.add(normalise(member));
+            }
+        }
+        return all;
+    }
+
+    private static String normalise(String member) {
+        String trimmed = member.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
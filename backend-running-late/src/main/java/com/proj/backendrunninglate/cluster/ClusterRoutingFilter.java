@@ -0,0 +1,115 @@
+package com.proj.backendrunninglate.cluster;
+
+import com.proj.backendrunninglate.web.AccountKeyFilter;
+import com.proj.backendrunninglate.web.CachedBodyRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Sends run, route and pace requests to the instance that owns the account,
+ * either by proxying them or by answering with a 307 so the client retries
+ * against the owner with the same method and body. Clients drop the
+ * Authorization header when a redirect crosses hosts, so requests carrying one
+ * are always proxied.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 110)
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+    static final String CLIENT_HEADER = "X-Cluster-Client";
+
+    private final ClusterMembership membership;
+    private final RestTemplate restTemplate;
+
+    public ClusterRoutingFilter(ClusterMembership membership, RestTemplate restTemplate) {
+        this.membership = membership;
+        this.restTemplate = restTemplate;
+    }
+
+    // The caller's address, also for requests a peer proxied here; the header is only believed from a verified peer
+    public static String clientAddressOf(HttpServletRequest request) {
+        String forwardedFor = request.getHeader(CLIENT_HEADER);
+        return forwardedFor != null && ClusterSecretFilter.isPeer(request) ? forwardedFor : request.getRemoteAddr();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!membership.isEnabled() || request.getHeader(FORWARDED_HEADER) != null) {
+            return true;
+        }
+        String path = AccountKeyFilter.pathOf(request);
+        return !(path.startsWith("/run/") || path.equals("/route") || path.startsWith("/pace/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String email = AccountKeyFilter.accountOf(request);
+        if (email == null || membership.isOwnedLocally(email)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String target = membership.ownerOf(email) + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+
+        if (membership.isRedirect() && request.getHeader(HttpHeaders.AUTHORIZATION) == null) {
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target);
+            return;
+        }
+
+        forward(request, response, target);
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, String target) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        if (request.getContentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, request.getContentType());
+        }
+        if (request.getHeader(HttpHeaders.ACCEPT) != null) {
+            headers.set(HttpHeaders.ACCEPT, request.getHeader(HttpHeaders.ACCEPT));
+        }
+        // The owner verifies the token again, since it is the one serving the account
+        if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, request.getHeader(HttpHeaders.AUTHORIZATION));
+        }
+        headers.set(FORWARDED_HEADER, membership.getSelf());
+        headers.set(CLIENT_HEADER, request.getRemoteAddr());
+        headers.set(ClusterSecretFilter.SECRET_HEADER, membership.getSecret());
+
+        CachedBodyRequest cached = WebUtils.getNativeRequest(request, CachedBodyRequest.class);
+        HttpEntity<byte[]> entity = new HttpEntity<>(cached != null ? cached.getBody() : null, headers);
+        ResponseEntity<byte[]> upstream;
+        try {
+            upstream = restTemplate.exchange(target, HttpMethod.valueOf(request.getMethod()), entity, byte[].class);
+        } catch (HttpStatusCodeException e) {
+            upstream = ResponseEntity.status(e.getStatusCode()).headers(e.getResponseHeaders()).body(e.getResponseBodyAsByteArray());
+        }
+
+        response.setStatus(upstream.getStatusCode().value());
+        if (upstream.getHeaders().getContentType() != null) {
+            response.setContentType(upstream.getHeaders().getContentType().toString());
+        }
+        if (upstream.getBody() != null) {
+            response.getOutputStream().write(upstream.getBody());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.proj.backendrunninglate.cluster;
+
+import com.proj.backendrunninglate.web.AccountKeyFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Only lets other instances reach the cluster endpoints, and only trusts the
+ * forwarded marker on requests they proxied. Peers prove themselves with the
+ * shared {@code cluster.secret}; with no secret configured both are refused.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 102)
+public class ClusterSecretFilter extends OncePerRequestFilter {
+
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+    public static final String PEER_ATTRIBUTE = ClusterSecretFilter.class.getName() + ".peer";
+
+    private final ClusterMembership membership;
+
+    public ClusterSecretFilter(ClusterMembership membership) {
+        this.membership = membership;
+    }
+
+    public static boolean isPeer(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute(PEER_ATTRIBUTE));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !AccountKeyFilter.pathOf(request).startsWith("/cluster/")
+                && request.getHeader(ClusterRoutingFilter.FORWARDED_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!membership.isTrustedPeer(request.getHeader(SECRET_HEADER))) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\": \"Not a cluster peer\"}");
+            return;
+        }
+        request.setAttribute(PEER_ATTRIBUTE, true);
+        chain.doFilter(request, response);
+    }
+}
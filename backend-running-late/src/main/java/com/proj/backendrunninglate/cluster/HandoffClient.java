@@ -0,0 +1,8 @@
+package com.proj.backendrunninglate.cluster;
+
+import java.util.List;
+
+public interface HandoffClient {
+
+    void handoff(String member, List<LiveRunState> runs);
+}
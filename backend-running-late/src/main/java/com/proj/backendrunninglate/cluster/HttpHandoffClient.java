@@ -0,0 +1,27 @@
+package com.proj.backendrunninglate.cluster;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+@Component
+public class HttpHandoffClient implements HandoffClient {
+
+    private final RestTemplate restTemplate;
+    private final ClusterMembership membership;
+
+    public HttpHandoffClient(RestTemplate restTemplate, ClusterMembership membership) {
+        this.restTemplate = restTemplate;
+        this.membership = membership;
+    }
+
+    @Override
+    public void handoff(String member, List<LiveRunState> runs) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ClusterSecretFilter.SECRET_HEADER, membership.getSecret());
+        restTemplate.postForEntity(member + "/cluster/handoff", new HttpEntity<>(runs, headers), Void.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.proj.backendrunninglate.cluster;
+
+import com.proj.backendrunninglate.repositories.ActiveRunRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory live run state for the accounts this instance owns. The database
+ * stays the durable copy: a miss for a locally owned account is filled from
+ * {@link ActiveRunRepository}, so a failed handoff only costs one extra read.
+ * Starting and ending a run only changes the registry once its transaction has
+ * committed, so a rolled back run never shows up here.
+ */
+@Component
+public class LiveRunRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveRunRegistry.class);
+
+    private final ConcurrentHashMap<String, LiveRunState> runs = new ConcurrentHashMap<>();
+    private final ClusterMembership membership;
+    private final ActiveRunRepository activeRunRepository;
+    private final HandoffClient handoffClient;
+    private final AtomicLong removals = new AtomicLong();
+
+    public LiveRunRegistry(ClusterMembership membership, ActiveRunRepository activeRunRepository, HandoffClient handoffClient) {
+        this.membership = membership;
+        this.activeRunRepository = activeRunRepository;
+        this.handoffClient = handoffClient;
+        membership.addListener(ring -> rebalance());
+    }
+
+    public Optional<LiveRunState> get(String email) {
+        LiveRunState state = runs.get(email);
+        if (state != null || !membership.isOwnedLocally(email)) {
+            return Optional.ofNullable(state);
+        }
+        long seen = removals.get();
+        Optional<LiveRunState> loaded = activeRunRepository.findByAccountEmail(email)
+                .map(run -> runs.computeIfAbsent(email, key -> LiveRunState.from(key, run)));
+        // A run that ended while it was being loaded must not be cached again
+        if (loaded.isPresent() && removals.get() != seen) {
+            runs.remove(email, loaded.get());
+        }
+        return loaded;
+    }
+
+    // Applied to whatever snapshot is current, so concurrent pings for one run cannot lose each other's updates
+    public Optional<LiveRunState> update(String email, UnaryOperator<LiveRunState> change) {
+        return Optional.ofNullable(runs.computeIfPresent(email, (key, state) -> change.apply(state)));
+    }
+
+    public void put(LiveRunState state) {
+        afterCommit(() -> runs.put(state.email(), state));
+    }
+
+    public void remove(String email) {
+        afterCommit(() -> {
+            runs.remove(email);
+            removals.incrementAndGet();
+        });
+    }
+
+    public int size() {
+        return runs.size();
+    }
+
+    public void accept(List<LiveRunState> handedOff) {
+        for (LiveRunState state : handedOff) {
+            runs.put(state.email(), state);
+        }
+    }
+
+    void rebalance() {
+        Map<String, List<LiveRunState>> byOwner = new HashMap<>();
+        for (LiveRunState state : runs.values()) {
+            String owner = membership.ownerOf(state.email());
+            if (!owner.equals(membership.getSelf())) {
+                byOwner.computeIfAbsent(owner, key -> new ArrayList<>()).add(state);
+            }
+        }
+
+        for (Map.Entry<String, List<LiveRunState>> entry : byOwner.entrySet()) {
+            handOff(entry.getKey(), entry.getValue());
+            // Removed by key: a ping during the handoff replaced the snapshot, and that newer version goes over too
+            List<LiveRunState> changed = new ArrayList<>();
+            for (LiveRunState state : entry.getValue()) {
+                LiveRunState latest = runs.remove(state.email());
+                if (latest != null && !latest.equals(state)) {
+                    changed.add(latest);
+                }
+            }
+            if (!changed.isEmpty()) {
+                handOff(entry.getKey(), changed);
+            }
+        }
+    }
+
+    private void handOff(String owner, List<LiveRunState> states) {
+        try {
+            handoffClient.handoff(owner, states);
+        } catch (Exception e) {
+            log.warn("Handoff of {} runs to {} failed, new owner will reload from the database", states.size(), owner, e);
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.proj.backendrunninglate.cluster;
+
+import com.proj.backendrunninglate.models.ActiveRun;
+
+import java.util.Date;
+
+/**
+ * Snapshot of a run in progress. Immutable, so readers never see a half-applied
+ * ping; {@link LiveRunRegistry#update} swaps in the next snapshot atomically.
+ */
+public record LiveRunState(
+        String email,
+        double originLat,
+        double originLng,
+        double currentLat,
+        double currentLng,
+        double destinationLat,
+        double destinationLng,
+        Date startTime,
+        Date neededArrivalTime,
+        String paceNeeded,
+        int distance,
+        int remainingMeters
+) {
+
+    public static LiveRunState from(String email, ActiveRun run) {
+        return new LiveRunState(
+                email,
+                run.getOriginLat(),
+                run.getOriginLng(),
+                run.getOriginLat(),
+                run.getOriginLng(),
+                run.getDestinationLat(),
+                run.getDestinationLng(),
+                run.getStartTime(),
+                run.getNeededArrivalTime(),
+                run.getPaceNeeded(),
+                run.getDistance(),
+                run.getDistance()
+        );
+    }
+
+    public LiveRunState withPosition(double lat, double lng, double destinationLat, double destinationLng, int remainingMeters) {
+        return new LiveRunState(email, originLat, originLng, lat, lng, destinationLat, destinationLng,
+                startTime, neededArrivalTime, paceNeeded, distance, remainingMeters);
+    }
+}
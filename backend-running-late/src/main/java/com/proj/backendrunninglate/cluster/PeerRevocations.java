@@ -0,0 +1,47 @@
+package com.proj.backendrunninglate.cluster;
+
+import com.proj.backendrunninglate.auth.TokenClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Pushes a logout to the other members. Token-bearing requests can land on any
+ * instance, so a revocation kept only where the logout arrived would leave the
+ * token usable everywhere else.
+ */
+@Component
+public class PeerRevocations {
+
+    private static final Logger log = LoggerFactory.getLogger(PeerRevocations.class);
+
+    private final RestTemplate restTemplate;
+    private final ClusterMembership membership;
+
+    public PeerRevocations(RestTemplate restTemplate, ClusterMembership membership) {
+        this.restTemplate = restTemplate;
+        this.membership = membership;
+    }
+
+    public void broadcast(TokenClaims claims) {
+        if (!membership.isEnabled()) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ClusterSecretFilter.SECRET_HEADER, membership.getSecret());
+        for (String member : membership.getMembers()) {
+            if (member.equals(membership.getSelf())) {
+                continue;
+            }
+            try {
+                restTemplate.postForEntity(member + "/cluster/revocations", new HttpEntity<>(claims, headers), Void.class);
+            } catch (Exception e) {
+                log.warn("Revocation of token {} not delivered to {}, it stays valid there until it expires",
+                        claims.tokenId(), member, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.proj.backendrunninglate.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class AccountQuotas {
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxTracked;
+    private final TokenBucket overflow;
+
+    public AccountQuotas(
+            @Value("${admission.account.requests-per-minute:30}") int requestsPerMinute,
+            @Value("${admission.account.burst:10}") int burst,
+            @Value("${admission.account.max-tracked:100000}") int maxTracked
+    ) {
+        this.permitsPerSecond = requestsPerMinute / 60.0;
+        this.burst = burst;
+        this.maxTracked = maxTracked;
+        this.overflow = new TokenBucket(permitsPerSecond, burst, System.nanoTime());
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = System.nanoTime();
+        return bucketFor(key, now).tryAcquire(now);
+    }
+
+    public long retryAfterSeconds(String key) {
+        TokenBucket bucket = buckets.getOrDefault(key, overflow);
+        return (bucket.waitNanos(System.nanoTime()) + 999_999_999L) / 1_000_000_000L;
+    }
+
+    public int getTracked() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketFor(String key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Once full, new keys share one bucket until the sweep frees room, so a flood of keys cannot grow the map
+        if (buckets.size() >= maxTracked) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst, now));
+    }
+
+    @Scheduled(fixedDelayString = "${admission.account.sweep-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+}
@@ -0,0 +1,128 @@
+package com.proj.backendrunninglate.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global in-flight request limit that follows observed latency. A short-term
+ * latency average is compared against a slowly moving baseline: while they agree
+ * the limit grows by roughly its square root, and as latency climbs above the
+ * baseline the limit shrinks in proportion. Dropped requests cut it
+ * multiplicatively. Callers that do not fit are rejected immediately rather
+ * than queued. Nothing here locks: a latency sample that arrives while another
+ * thread is folding one in is skipped, and the limit itself is a CAS-updated
+ * double.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_ALPHA = 0.2;
+    private static final double LONG_ALPHA = 0.01;
+    private static final double SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;
+    private static final double BACKOFF = 0.9;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicLong limitBits;
+    private final AtomicBoolean sampling = new AtomicBoolean();
+    // Only read and written by the thread holding the sampling flag
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(
+            @Value("${admission.limit.initial:50}") int initialLimit,
+            @Value("${admission.limit.min:8}") int minLimit,
+            @Value("${admission.limit.max:400}") int maxLimit
+    ) {
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit() * priority.getShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        if (dropped) {
+            backOff();
+        } else {
+            sample(rttNanos, current);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private void backOff() {
+        while (true) {
+            long bits = limitBits.get();
+            double next = Math.max(minLimit, Double.longBitsToDouble(bits) * BACKOFF);
+            if (limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private void sample(long rttNanos, int inFlightAtRelease) {
+        // Under load there are plenty of samples; losing some is cheaper than queueing releases on a lock
+        if (!sampling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+            } else {
+                shortRttNanos += SHORT_ALPHA * (rttNanos - shortRttNanos);
+                longRttNanos += LONG_ALPHA * (rttNanos - longRttNanos);
+            }
+
+            // Let the baseline recover after a sustained slowdown instead of pinning the limit low
+            if (longRttNanos > 2 * shortRttNanos) {
+                longRttNanos *= 0.95;
+            }
+
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            // Only grow when the limit is actually being exercised
+            if (inFlightAtRelease < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+            double target = limit * gradient + Math.sqrt(limit);
+            double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+            // A drop that landed in between wins; the next sample starts from the reduced limit
+            limitBits.compareAndSet(bits, Double.doubleToRawLongBits(Math.max(minLimit, Math.min(maxLimit, next))));
+        } finally {
+            sampling.set(false);
+        }
+    }
+}
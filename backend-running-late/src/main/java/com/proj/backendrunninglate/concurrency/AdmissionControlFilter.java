@@ -0,0 +1,125 @@
+package com.proj.backendrunninglate.concurrency;
+
+import com.proj.backendrunninglate.auth.AuthenticationFilter;
+import com.proj.backendrunninglate.auth.TokenClaims;
+import com.proj.backendrunninglate.cluster.ClusterRoutingFilter;
+import com.proj.backendrunninglate.web.AccountKeyFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects work with a fast 429 instead of letting it queue. Upstream-backed
+ * endpoints are charged against a token bucket per verified account; without a
+ * token the email in the body is unproven, so the caller's address is charged
+ * as well, and cycling through made-up emails does not buy fresh bursts. Every API
+ * request needs a slot from the adaptive limiter, where route previews give
+ * way first and run start/end last.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 120)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AccountQuotas accountQuotas;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean enabled;
+    private final Counter quotaRejections;
+    private final Counter limitRejections;
+
+    public AdmissionControlFilter(
+            AccountQuotas accountQuotas,
+            AdaptiveConcurrencyLimiter limiter,
+            MeterRegistry meterRegistry,
+            @Value("${admission.enabled:true}") boolean enabled
+    ) {
+        this.accountQuotas = accountQuotas;
+        this.limiter = limiter;
+        this.enabled = enabled;
+        this.quotaRejections = Counter.builder("admission.rejected").tag("reason", "quota").register(meterRegistry);
+        this.limitRejections = Counter.builder("admission.rejected").tag("reason", "limit").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = AccountKeyFilter.pathOf(request);
+        return !enabled || path.startsWith("/actuator") || path.startsWith("/cluster");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = AccountKeyFilter.pathOf(request);
+
+        if (isUpstreamBacked(path) && !chargeQuota(request, response)) {
+            return;
+        }
+
+        if (!limiter.tryAcquire(priorityOf(path))) {
+            limitRejections.increment();
+            reject(response, 1, "Server is busy");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private boolean chargeQuota(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TokenClaims claims = (TokenClaims) request.getAttribute(AuthenticationFilter.CLAIMS_ATTRIBUTE);
+        if (claims != null) {
+            return charge("account:" + claims.accountId(), response);
+        }
+        String email = AccountKeyFilter.accountOf(request);
+        return charge("address:" + ClusterRoutingFilter.clientAddressOf(request), response)
+                && (email == null || charge("email:" + email, response));
+    }
+
+    private boolean charge(String key, HttpServletResponse response) throws IOException {
+        if (accountQuotas.tryAcquire(key)) {
+            return true;
+        }
+        quotaRejections.increment();
+        reject(response, accountQuotas.retryAfterSeconds(key), "Route quota exceeded");
+        return false;
+    }
+
+    static boolean isUpstreamBacked(String path) {
+        return path.equals("/route") || path.equals("/route/generic") || path.equals("/run/start");
+    }
+
+    static Priority priorityOf(String path) {
+        if (path.equals("/route/generic")) {
+            return Priority.LOW;
+        }
+        if (path.startsWith("/run/")) {
+            return Priority.HIGH;
+        }
+        return Priority.NORMAL;
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\": \"" + message + "\"}");
+    }
+}
@@ -0,0 +1,8 @@
+package com.proj.backendrunninglate.concurrency;
+
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String name) {
+        super("Too many concurrent calls to " + name);
+    }
+}
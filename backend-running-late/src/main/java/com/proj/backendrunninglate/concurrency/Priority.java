@@ -0,0 +1,19 @@
+package com.proj.backendrunninglate.concurrency;
+
+public enum Priority {
+
+    // Share of the adaptive limit each class may fill; lower classes are shed first
+    LOW(0.5),
+    NORMAL(0.9),
+    HIGH(1.0);
+
+    private final double share;
+
+    Priority(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+}
@@ -1,40 +1,75 @@
 package com.proj.backendrunninglate.controllers;
 
+import com.proj.backendrunninglate.concurrency.BulkheadFullException;
+import com.proj.backendrunninglate.metrics.ProfileLoadMetrics;
 import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.repositories.ProfileVersion;
 import com.proj.backendrunninglate.requests.AccountRequest;
+import com.proj.backendrunninglate.responses.AccountResponse;
 import com.proj.backendrunninglate.services.AccountService;
+import com.proj.backendrunninglate.web.WireFormat;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 @RequestMapping("/accounts")
 public class AccountController {
 
     private final AccountService accountService;
+    private final ProfileLoadMetrics profileLoadMetrics;
 
     @Autowired
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, ProfileLoadMetrics profileLoadMetrics) {
         this.accountService = accountService;
+        this.profileLoadMetrics = profileLoadMetrics;
     }
 
     @PostMapping("/create")
     public ResponseEntity<?> createAccount(@RequestBody AccountRequest account) {
         try {
             return ResponseEntity.ok(accountService.createAccount(account));
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // Revalidated on every open: a matching If-None-Match costs one version lookup and no Account or PastRun rows
     @GetMapping("/get/{email}")
-    public ResponseEntity<?> getAccount(@PathVariable String email) {
+    public ResponseEntity<?> getAccount(
+            @PathVariable String email,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            ServletWebRequest webRequest
+    ) {
         try {
-            return ResponseEntity.ok(accountService.getAccount(email));
+            ProfileVersion version = accountService.getProfileVersion(email);
+            String eTag = profileETag(version, WireFormat.of(accept));
+            webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            if (webRequest.checkNotModified(eTag)) {
+                profileLoadMetrics.notModified();
+                return null;
+            }
+
+            // Read after the version, so a run finishing in between leaves newer data under an older tag, never the reverse
+            AccountResponse profile = accountService.getAccount(email);
+            profileLoadMetrics.full();
+            return ResponseEntity.ok().eTag(eTag).body(profile);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Account not found");
         }
     }
 
+    // The format is part of the tag so the JSON and CBOR bodies of one version never validate each other
+    static String profileETag(ProfileVersion version, WireFormat format) {
+        return "\"" + version.accountId() + "-" + version.version() + "-" + format.name().toLowerCase() + "\"";
+    }
+
 
 }
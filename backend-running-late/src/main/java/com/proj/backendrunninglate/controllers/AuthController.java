@@ -0,0 +1,45 @@
+package com.proj.backendrunninglate.controllers;
+
+import com.proj.backendrunninglate.concurrency.BulkheadFullException;
+import com.proj.backendrunninglate.requests.LoginRequest;
+import com.proj.backendrunninglate.services.AuthenticationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/auth")
+public class AuthController {
+
+    private final AuthenticationService authenticationService;
+
+    @Autowired
+    public AuthController(AuthenticationService authenticationService) {
+        this.authenticationService = authenticationService;
+    }
+
+    @PostMapping("/login")
+    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+        try {
+            return ResponseEntity.ok(authenticationService.login(request));
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        try {
+            if (authorization.startsWith("Bearer ")) {
+                authenticationService.logout(authorization.substring("Bearer ".length()));
+            }
+            return ResponseEntity.noContent().build();
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.proj.backendrunninglate.controllers;
+
+import com.proj.backendrunninglate.auth.RevocationCache;
+import com.proj.backendrunninglate.auth.TokenClaims;
+import com.proj.backendrunninglate.cluster.ClusterMembership;
+import com.proj.backendrunninglate.cluster.LiveRunRegistry;
+import com.proj.backendrunninglate.cluster.LiveRunState;
+import com.proj.backendrunninglate.concurrency.BulkheadFullException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cluster")
+public class ClusterController {
+
+    private final ClusterMembership membership;
+    private final LiveRunRegistry liveRunRegistry;
+    private final RevocationCache revocationCache;
+
+    @Autowired
+    public ClusterController(ClusterMembership membership, LiveRunRegistry liveRunRegistry, RevocationCache revocationCache) {
+        this.membership = membership;
+        this.liveRunRegistry = liveRunRegistry;
+        this.revocationCache = revocationCache;
+    }
+
+    @GetMapping("/members")
+    public ResponseEntity<?> getMembers() {
+        return ResponseEntity.ok(membership.getMembers());
+    }
+
+    @PutMapping("/members")
+    public ResponseEntity<?> updateMembers(@RequestBody List<String> members) {
+        membership.updateMembers(members);
+        return ResponseEntity.ok(membership.getMembers());
+    }
+
+    @PostMapping("/handoff")
+    public ResponseEntity<?> handoff(@RequestBody List<LiveRunState> runs) {
+        liveRunRegistry.accept(runs);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/revocations")
+    public ResponseEntity<?> revoke(@RequestBody TokenClaims claims) {
+        try {
+            revocationCache.revoke(claims);
+            return ResponseEntity.ok().build();
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
@@ -1,24 +1,30 @@
 package com.proj.backendrunninglate.controllers;
 
-import com.proj.backendrunninglate.responses.PaceResponse;
+import com.proj.backendrunninglate.cluster.LiveRunRegistry;
 import com.proj.backendrunninglate.services.PaceCalculationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Date;
+
 @RestController
 @RequestMapping("/pace")
 public class PaceController {
 
     private final PaceCalculationService paceCalculationService;
+    private final LiveRunRegistry liveRunRegistry;
 
-    public PaceController(PaceCalculationService paceCalculationService) {
+    public PaceController(PaceCalculationService paceCalculationService, LiveRunRegistry liveRunRegistry) {
         this.paceCalculationService = paceCalculationService;
+        this.liveRunRegistry = liveRunRegistry;
     }
 
+    // Computed from the live run in memory; only a run this instance has not seen yet costs a read
     @GetMapping("/{email}")
     public ResponseEntity<?> getPace(@PathVariable String email) {
-        return null;
-        //return paceCalculationService.calculatePace(email);
+        return liveRunRegistry.get(email)
+                .<ResponseEntity<?>>map(run -> ResponseEntity.ok(paceCalculationService.calculatePace(run, new Date())))
+                .orElseGet(() -> ResponseEntity.badRequest().body("No active run for this account"));
     }
 
 }
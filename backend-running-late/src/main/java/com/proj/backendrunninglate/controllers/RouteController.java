@@ -30,7 +30,7 @@ public class RouteController {
        return navigationService.getRoute(request);
     }
 
-    @PostMapping
+    @PostMapping("/generic")
     public ResponseEntity<?> getGenericRoute(@RequestBody GenericRouteRequest request) {
         return navigationService.getGenericRoute(request);
     }
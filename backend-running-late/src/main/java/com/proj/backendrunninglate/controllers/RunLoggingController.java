@@ -1,9 +1,11 @@
 package com.proj.backendrunninglate.controllers;
 
+import com.proj.backendrunninglate.concurrency.BulkheadFullException;
 import com.proj.backendrunninglate.requests.SaveRunRequest;
 import com.proj.backendrunninglate.requests.StartRunRequest;
 import com.proj.backendrunninglate.services.RunLoggingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +24,8 @@ public class RunLoggingController {
     public ResponseEntity<?> startRun(@RequestBody StartRunRequest startRunRequest) {
         try {
             return runLoggingService.startRun(startRunRequest);
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
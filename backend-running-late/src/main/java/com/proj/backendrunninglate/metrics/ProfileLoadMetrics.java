@@ -0,0 +1,36 @@
+package com.proj.backendrunninglate.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Profile loads split by whether the client's cached copy was still current.
+ * The 304 share is {@code profile.loads{result="not_modified"}} over all loads.
+ */
+@Component
+public class ProfileLoadMetrics {
+
+    private final Counter notModified;
+    private final Counter full;
+
+    public ProfileLoadMetrics(MeterRegistry registry) {
+        this.notModified = counter(registry, "not_modified");
+        this.full = counter(registry, "full");
+    }
+
+    public void notModified() {
+        notModified.increment();
+    }
+
+    public void full() {
+        full.increment();
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("profile.loads")
+                .description("Profile requests, answered in full or with 304 Not Modified")
+                .tag("result", result)
+                .register(registry);
+    }
+}
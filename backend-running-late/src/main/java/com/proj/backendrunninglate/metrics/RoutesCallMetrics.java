@@ -0,0 +1,35 @@
+package com.proj.backendrunninglate.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for outbound Routes API calls, one per outcome. They are registered up
+ * front so recording a call is a field read and a histogram update.
+ */
+@Component
+public class RoutesCallMetrics {
+
+    public enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR, REJECTED, ERROR
+    }
+
+    private final Timer[] timers = new Timer[Outcome.values().length];
+
+    public RoutesCallMetrics(MeterRegistry registry) {
+        for (Outcome outcome : Outcome.values()) {
+            timers[outcome.ordinal()] = Timer.builder("routes.api.calls")
+                    .description("Outbound Routes API calls")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+    public void record(Outcome outcome, long startNanos) {
+        timers[outcome.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,38 @@
+package com.proj.backendrunninglate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public class StatementCountInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public StatementCountInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        StatementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        summaries.computeIfAbsent(uri, key -> DistributionSummary.builder("hibernate.statements.per.request")
+                        .description("SQL statements issued while handling one request")
+                        .tag("uri", key)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(StatementCounter.current());
+    }
+}
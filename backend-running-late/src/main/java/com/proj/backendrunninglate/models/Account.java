@@ -3,6 +3,7 @@ package com.proj.backendrunninglate.models;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
@@ -13,15 +14,23 @@ public class Account {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // The unique index, not the existence check in AccountService, is what stops two concurrent signups
+    @Column(unique = true)
     private String email;
 
     private String name;
 
     private String password;
 
-    @OneToOne
+    // Only the run endpoints need it; they fetch it with the account through an entity graph
+    @OneToOne(fetch = FetchType.LAZY)
     private ActiveRun activeRun;
 
+    // Bumped whenever the profile or run history changes; the profile ETag is derived from it
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long profileVersion;
+
     public Account(String email, String name, String password) {
         this.email = email;
         this.name = name;
@@ -29,4 +38,8 @@ public class Account {
     }
 
     public Account() {}
+
+    public void profileChanged() {
+        profileVersion++;
+    }
 }
@@ -26,7 +26,7 @@ public class ActiveRun {
     private String paceNeeded;
     private int distance;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     private Account account;
 
     public ActiveRun() {}
@@ -0,0 +1,54 @@
+package com.proj.backendrunninglate.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(columnList = "status, nextAttemptAt"))
+public class MailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String dedupKey;
+
+    private String recipient;
+
+    private String subject;
+
+    @Column(length = 4000)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    private MailStatus status;
+
+    private int attempts;
+
+    private Date nextAttemptAt;
+
+    private Date createdAt;
+
+    private Date sentAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    public MailOutbox() {}
+
+    public MailOutbox(String dedupKey, String recipient, String subject, String body, Date createdAt) {
+        this.dedupKey = dedupKey;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.status = MailStatus.PENDING;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+}
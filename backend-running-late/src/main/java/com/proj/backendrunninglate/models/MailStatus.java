@@ -0,0 +1,7 @@
+package com.proj.backendrunninglate.models;
+
+public enum MailStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
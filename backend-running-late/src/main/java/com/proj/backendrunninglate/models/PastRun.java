@@ -29,7 +29,7 @@ public class PastRun {
 
     private Date date;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
 
     public PastRun() {}
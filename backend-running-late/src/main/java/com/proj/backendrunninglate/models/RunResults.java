@@ -20,7 +20,7 @@ public class RunResults {
 
     private Date neededArrivalTime;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private PastRun pastRun;
 
 }
@@ -1,8 +1,15 @@
 package com.proj.backendrunninglate.repositories;
 
 import com.proj.backendrunninglate.models.Account;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -11,5 +18,28 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByEmail(String email);
 
+    // Run end reads and replaces the active run
+    @EntityGraph(attributePaths = "activeRun")
+    Optional<Account> findWithActiveRunByEmail(String email);
+
+    // Run start locks the row so two concurrent starts cannot both insert a run. The foreign key alone tells whether
+    // one is active, and without a join the lock read sees the row as the other start committed it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.email = :email")
+    Optional<Account> findForUpdateByEmail(@Param("email") String email);
+
+    // Empty when the account does not exist; reads only the foreign key, not the run
+    @Query("select case when a.activeRun is null then false else true end from Account a where a.email = :email")
+    Optional<Boolean> findRunningByEmail(@Param("email") String email);
+
     boolean existsByEmail(String email);
+
+    // Writes only the hash, and only if it is still the one that was verified, so a login never overwrites other columns
+    @Transactional
+    @Modifying
+    @Query("update Account a set a.password = :rehashed where a.id = :id and a.password = :verified")
+    int updatePassword(@Param("id") Long id, @Param("verified") String verified, @Param("rehashed") String rehashed);
+
+    @Query("select new com.proj.backendrunninglate.repositories.ProfileVersion(a.id, a.profileVersion) from Account a where a.email = :email")
+    Optional<ProfileVersion> findProfileVersion(@Param("email") String email);
 }
@@ -3,6 +3,10 @@ package com.proj.backendrunninglate.repositories;
 import com.proj.backendrunninglate.models.ActiveRun;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface ActiveRunRepository extends JpaRepository<ActiveRun, Long> {
 
+    Optional<ActiveRun> findByAccountEmail(String email);
+
 }
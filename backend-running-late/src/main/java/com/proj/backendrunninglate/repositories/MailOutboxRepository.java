@@ -0,0 +1,42 @@
+package com.proj.backendrunninglate.repositories;
+
+import com.proj.backendrunninglate.models.MailOutbox;
+import com.proj.backendrunninglate.models.MailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    // The unique dedup_key drops a repeat, so concurrent enqueues of the same mail cannot both insert
+    @Modifying
+    @Query(value = "insert into mail_outbox (dedup_key, recipient, subject, body, status, attempts, next_attempt_at, created_at) "
+            + "values (:dedupKey, :recipient, :subject, :body, 'PENDING', 0, :now, :now) on conflict do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("dedupKey") String dedupKey, @Param("recipient") String recipient,
+                       @Param("subject") String subject, @Param("body") String body, @Param("now") Date now);
+
+    // A lock timeout of -2 is SKIP LOCKED, so dispatchers on other instances claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from MailOutbox m where m.status = :status and m.nextAttemptAt <= :now order by m.id")
+    List<MailOutbox> findDue(@Param("status") MailStatus status, @Param("now") Date now, Pageable page);
+
+    @Modifying
+    @Query("update MailOutbox m set m.status = com.proj.backendrunninglate.models.MailStatus.SENT, m.sentAt = :now where m.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") Date now);
+
+    long countByStatus(MailStatus status);
+}
@@ -1,5 +1,6 @@
 package com.proj.backendrunninglate.repositories;
 
+import com.proj.backendrunninglate.models.Account;
 import com.proj.backendrunninglate.models.PastRun;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -9,6 +10,7 @@ import java.util.List;
 @Repository
 public interface PastRunRepository extends JpaRepository<PastRun, Long> {
 
-    List<PastRun> findByAccountEmail(String email);
+    // By foreign key: the caller already has the account, so there is nothing to join
+    List<PastRun> findByAccount(Account account);
 
 }
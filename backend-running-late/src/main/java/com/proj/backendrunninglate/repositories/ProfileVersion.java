@@ -0,0 +1,7 @@
+package com.proj.backendrunninglate.repositories;
+
+/**
+ * The account id and profile version, read without loading the account itself.
+ */
+public record ProfileVersion(long accountId, long version) {
+}
@@ -0,0 +1,9 @@
+package com.proj.backendrunninglate.requests;
+
+import lombok.Data;
+
+@Data
+public class LoginRequest {
+    private String email;
+    private String password;
+}
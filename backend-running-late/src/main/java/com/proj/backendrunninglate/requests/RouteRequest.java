@@ -12,7 +12,9 @@ public class RouteRequest {
     public double destinationLng;
     private String distance;
     private String neededArrivalTime;
-    
+
+    public RouteRequest() {}
+
     public RouteRequest(String email, double currentLat, double currentLng, double destinationLat, double destinationLng, String distance, String neededArrivalTime) {
         this.email = email;
         this.currentLat = currentLat;
@@ -1,4 +1,20 @@
 package com.proj.backendrunninglate.responses;
 
+import lombok.Data;
+
+@Data
 public class PaceResponse {
+    private PaceStatus status;
+    private int remainingMeters;
+    private long secondsPerKm;
+    private String paceNeeded;
+
+    public PaceResponse(PaceStatus status, int remainingMeters, long secondsPerKm, String paceNeeded) {
+        this.status = status;
+        this.remainingMeters = remainingMeters;
+        this.secondsPerKm = secondsPerKm;
+        this.paceNeeded = paceNeeded;
+    }
+
+    public PaceResponse() {}
 }
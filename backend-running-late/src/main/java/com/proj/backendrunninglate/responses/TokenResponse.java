@@ -0,0 +1,18 @@
+package com.proj.backendrunninglate.responses;
+
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+public class TokenResponse {
+    private String token;
+    private Date expiresAt;
+
+    public TokenResponse(String token, Date expiresAt) {
+        this.token = token;
+        this.expiresAt = expiresAt;
+    }
+
+    public TokenResponse() {}
+}
@@ -1,13 +1,18 @@
 package com.proj.backendrunninglate.services;
 
+import com.proj.backendrunninglate.auth.PasswordHasher;
 import com.proj.backendrunninglate.models.Account;
 import com.proj.backendrunninglate.models.PastRun;
 import com.proj.backendrunninglate.repositories.AccountRepository;
 import com.proj.backendrunninglate.repositories.PastRunRepository;
+import com.proj.backendrunninglate.repositories.ProfileVersion;
 import com.proj.backendrunninglate.requests.AccountRequest;
 import com.proj.backendrunninglate.responses.AccountResponse;
 import com.proj.backendrunninglate.responses.PastRunResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,16 +22,20 @@ import java.util.List;
 @Service
 public class AccountService {
 
+    private static final Logger log = LoggerFactory.getLogger(AccountService.class);
+
     private final AccountRepository accountRepository;
     private final PastRunRepository pastRunRepository;
+    private final PasswordHasher passwordHasher;
 
     @Autowired
-    public AccountService(AccountRepository accountRepository, PastRunRepository pastRunRepository) {
+    public AccountService(AccountRepository accountRepository, PastRunRepository pastRunRepository, PasswordHasher passwordHasher) {
         this.accountRepository = accountRepository;
         this.pastRunRepository = pastRunRepository;
+        this.passwordHasher = passwordHasher;
     }
 
-    @Transactional
+    // Not transactional so no pooled connection is held while the password is hashed
     public AccountResponse createAccount(AccountRequest accountRequest) {
 
         if (accountRepository.existsByEmail(accountRequest.getEmail())) {
@@ -36,11 +45,16 @@ public class AccountService {
         Account account = new Account(
                 accountRequest.getEmail(),
                 accountRequest.getName(),
-                accountRequest.getPassword()
+                passwordHasher.hash(accountRequest.getPassword())
         );
 
-        accountRepository.save(account);
-        System.out.println(account.getName() + " created");
+        try {
+            accountRepository.save(account);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with another signup for the same email
+            throw new IllegalStateException("Email already taken");
+        }
+        log.debug("Account {} created", account.getId());
         AccountResponse accountResponse = new AccountResponse();
         accountResponse.setName(account.getName());
         accountResponse.setEmail(account.getEmail());
@@ -48,6 +62,12 @@ public class AccountService {
         return accountResponse;
     }
 
+    public ProfileVersion getProfileVersion(String email) {
+        return accountRepository.findProfileVersion(email).orElseThrow(
+                () -> new IllegalArgumentException("Account does not exist")
+        );
+    }
+
     @Transactional
     public AccountResponse getAccount(String email) {
 
@@ -55,8 +75,12 @@ public class AccountService {
                 () -> new IllegalArgumentException("Account does not exist")
         );
 
-        List<PastRun> pastRuns = pastRunRepository.findByAccountEmail(email);
-        List<PastRunResponse> pastRunResponses = new ArrayList<>();
+        List<PastRun> pastRuns = pastRunRepository.findByAccount(account);
+        return toAccountResponse(account, pastRuns);
+    }
+
+    static AccountResponse toAccountResponse(Account account, List<PastRun> pastRuns) {
+        List<PastRunResponse> pastRunResponses = new ArrayList<>(pastRuns.size());
 
         for (PastRun pastRun : pastRuns) {
             PastRunResponse pastRunResponse = new PastRunResponse(
@@ -1,4 +1,95 @@
 package com.proj.backendrunninglate.services;
 
+import com.proj.backendrunninglate.auth.PasswordHasher;
+import com.proj.backendrunninglate.auth.RevocationCache;
+import com.proj.backendrunninglate.auth.TokenClaims;
+import com.proj.backendrunninglate.auth.TokenCodec;
+import com.proj.backendrunninglate.cluster.PeerRevocations;
+import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.repositories.AccountRepository;
+import com.proj.backendrunninglate.requests.LoginRequest;
+import com.proj.backendrunninglate.responses.TokenResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+
+@Service
 public class AuthenticationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationService.class);
+
+    private final AccountRepository accountRepository;
+    private final PasswordHasher passwordHasher;
+    private final RevocationCache revocationCache;
+    private final PeerRevocations peerRevocations;
+    private final TokenCodec tokenCodec;
+    private final long ttlMillis;
+    private final SecureRandom random = new SecureRandom();
+    // Unknown emails are checked against this so they take as long to reject as a wrong password
+    private final String unknownAccountHash;
+
+    public AuthenticationService(
+            AccountRepository accountRepository,
+            PasswordHasher passwordHasher,
+            RevocationCache revocationCache,
+            PeerRevocations peerRevocations,
+            @Value("${auth.token.secret:}") String secret,
+            @Value("${auth.token.ttl-minutes:60}") long ttlMinutes
+    ) {
+        this.accountRepository = accountRepository;
+        this.passwordHasher = passwordHasher;
+        this.revocationCache = revocationCache;
+        this.peerRevocations = peerRevocations;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.tokenCodec = new TokenCodec(signingKey(secret));
+        byte[] unguessable = new byte[16];
+        random.nextBytes(unguessable);
+        this.unknownAccountHash = passwordHasher.hash(Base64.getEncoder().encodeToString(unguessable));
+    }
+
+    // Not transactional: the lookup and the rehash each take a connection briefly instead of holding one while hashing
+    public TokenResponse login(LoginRequest request) {
+        Optional<Account> found = accountRepository.findByEmail(request.getEmail());
+        boolean matches = passwordHasher.matches(request.getPassword(), found.map(Account::getPassword).orElse(unknownAccountHash));
+        if (found.isEmpty() || !matches) {
+            throw new IllegalArgumentException("Invalid email or password");
+        }
+        Account account = found.get();
+
+        if (passwordHasher.needsRehash(account.getPassword())) {
+            accountRepository.updatePassword(account.getId(), account.getPassword(), passwordHasher.hash(request.getPassword()));
+        }
+
+        long now = System.currentTimeMillis();
+        TokenClaims claims = new TokenClaims(account.getId(), account.getEmail(), random.nextLong(), now, now + ttlMillis);
+        return new TokenResponse(tokenCodec.encode(claims), new Date(claims.expiresAtMillis()));
+    }
+
+    public void logout(String token) {
+        verify(token).ifPresent(claims -> {
+            revocationCache.revoke(claims);
+            peerRevocations.broadcast(claims);
+        });
+    }
+
+    public Optional<TokenClaims> verify(String token) {
+        return tokenCodec.decode(token, System.currentTimeMillis())
+                .filter(claims -> !revocationCache.isRevoked(claims));
+    }
+
+    private byte[] signingKey(String secret) {
+        if (!secret.isBlank()) {
+            return Base64.getDecoder().decode(secret);
+        }
+        log.warn("auth.token.secret is not set; using a random key, so tokens will not survive a restart or work across instances");
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        return key;
+    }
 }
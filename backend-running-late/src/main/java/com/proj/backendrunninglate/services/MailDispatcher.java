@@ -0,0 +1,110 @@
+package com.proj.backendrunninglate.services;
+
+import com.proj.backendrunninglate.models.MailOutbox;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the mail outbox off the request path. Each claimed batch is handed to
+ * {@link JavaMailSender} as one array, which delivers it over a single SMTP
+ * connection; failed messages go back to the outbox with a backoff.
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final MailOutboxService mailOutboxService;
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final String from;
+
+    public MailDispatcher(
+            MailOutboxService mailOutboxService,
+            ObjectProvider<JavaMailSender> mailSender,
+            @Value("${mail.from:no-reply@runninglate.app}") String from
+    ) {
+        this.mailOutboxService = mailOutboxService;
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Scheduled(fixedDelayString = "${mail.dispatch-interval-ms:5000}")
+    public void dispatch() {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (!mailOutboxService.isEnabled() || sender == null) {
+            return;
+        }
+
+        List<MailOutbox> batch;
+        do {
+            batch = mailOutboxService.claimDue();
+            if (!batch.isEmpty()) {
+                send(sender, batch);
+            }
+        } while (batch.size() == mailOutboxService.getBatchSize());
+    }
+
+    private void send(JavaMailSender sender, List<MailOutbox> batch) {
+        Map<MimeMessage, MailOutbox> messages = new IdentityHashMap<>();
+        for (MailOutbox mail : batch) {
+            try {
+                messages.put(toMessage(sender, mail), mail);
+            } catch (MessagingException e) {
+                mailOutboxService.markFailed(mail.getId(), e);
+            }
+        }
+
+        Map<Object, Exception> failed = Map.of();
+        try {
+            sender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages();
+        } catch (MailException e) {
+            failed = new IdentityHashMap<>();
+            for (MimeMessage message : messages.keySet()) {
+                failed.put(message, e);
+            }
+        }
+
+        List<Long> sent = new ArrayList<>(messages.size());
+        for (Map.Entry<MimeMessage, MailOutbox> entry : messages.entrySet()) {
+            Exception error = failed.get(entry.getKey());
+            if (error == null) {
+                sent.add(entry.getValue().getId());
+            } else {
+                mailOutboxService.markFailed(entry.getValue().getId(), error);
+            }
+        }
+        mailOutboxService.markSent(sent);
+
+        if (!failed.isEmpty()) {
+            log.warn("{} of {} mails failed, will retry", failed.size(), messages.size());
+        }
+    }
+
+    private MimeMessage toMessage(JavaMailSender sender, MailOutbox mail) throws MessagingException {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody());
+        return message;
+    }
+}
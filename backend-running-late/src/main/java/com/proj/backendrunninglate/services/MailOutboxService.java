@@ -0,0 +1,121 @@
+package com.proj.backendrunninglate.services;
+
+import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.models.MailOutbox;
+import com.proj.backendrunninglate.models.MailStatus;
+import com.proj.backendrunninglate.models.PastRun;
+import com.proj.backendrunninglate.repositories.MailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class MailOutboxService {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long leaseMillis;
+    private final DateTimeFormatter timeFormat;
+
+    public MailOutboxService(
+            MailOutboxRepository mailOutboxRepository,
+            @Value("${mail.enabled:false}") boolean enabled,
+            @Value("${mail.batch-size:50}") int batchSize,
+            @Value("${mail.max-attempts:5}") int maxAttempts,
+            @Value("${mail.retry-base-ms:30000}") long retryBaseMillis,
+            @Value("${mail.lease-ms:300000}") long leaseMillis,
+            @Value("${mail.zone:UTC}") String zone
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMillis = retryBaseMillis;
+        this.leaseMillis = leaseMillis;
+        this.timeFormat = DateTimeFormatter.ofPattern("EEE d MMM yyyy, HH:mm z", Locale.ENGLISH).withZone(ZoneId.of(zone));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    // Runs inside the run finalisation transaction, so the mail exists exactly when the run does
+    @Transactional
+    public void enqueueRunMails(Account account, PastRun pastRun, Date neededArrivalTime, Date finishedAt) {
+        if (!enabled) {
+            return;
+        }
+
+        enqueue("run-summary:" + pastRun.getId(), account.getEmail(), "Your run summary",
+                "Hi " + account.getName() + ",\n\n"
+                        + "You ran " + pastRun.getDistance() + " m and finished at " + timeFormat.format(finishedAt.toInstant()) + ".\n");
+
+        if (neededArrivalTime != null && finishedAt.after(neededArrivalTime)) {
+            long minutesLate = (finishedAt.getTime() - neededArrivalTime.getTime() + 59_999) / 60_000;
+            enqueue("late:" + pastRun.getId(), account.getEmail(), "You were late",
+                    "Hi " + account.getName() + ",\n\n"
+                            + "You arrived " + minutesLate + " min after you needed to be there. "
+                            + "Try starting a little earlier next time.\n");
+        }
+    }
+
+    @Transactional
+    public void enqueue(String dedupKey, String recipient, String subject, String body) {
+        mailOutboxRepository.insertIfAbsent(dedupKey, recipient, subject, body, new Date());
+    }
+
+    // Claimed rows are leased by pushing their next attempt out, so a crashed dispatcher's batch is retried later
+    @Transactional
+    public List<MailOutbox> claimDue() {
+        Date now = new Date();
+        List<MailOutbox> due = mailOutboxRepository.findDue(MailStatus.PENDING, now, PageRequest.of(0, batchSize));
+        Date leaseExpiry = new Date(now.getTime() + leaseMillis);
+        for (MailOutbox mail : due) {
+            mail.setNextAttemptAt(leaseExpiry);
+        }
+        return due;
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            mailOutboxRepository.markSent(ids, new Date());
+        }
+    }
+
+    @Transactional
+    public void markFailed(Long id, Exception error) {
+        MailOutbox mail = mailOutboxRepository.findById(id).orElseThrow(
+                () -> new IllegalArgumentException("Mail does not exist")
+        );
+
+        mail.setAttempts(mail.getAttempts() + 1);
+        String message = String.valueOf(error.getMessage());
+        mail.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (mail.getAttempts() >= maxAttempts) {
+            mail.setStatus(MailStatus.FAILED);
+            return;
+        }
+
+        long backoff = retryBaseMillis << (mail.getAttempts() - 1);
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 4 + 1);
+        mail.setNextAttemptAt(new Date(System.currentTimeMillis() + backoff + jitter));
+    }
+}
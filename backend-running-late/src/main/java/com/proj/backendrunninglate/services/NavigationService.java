@@ -2,117 +2,146 @@ package com.proj.backendrunninglate.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.proj.backendrunninglate.models.Account;
-import com.proj.backendrunninglate.repositories.AccountRepository;
+import com.proj.backendrunninglate.cluster.LiveRunRegistry;
+import com.proj.backendrunninglate.concurrency.Bulkhead;
+import com.proj.backendrunninglate.concurrency.BulkheadFullException;
+import com.proj.backendrunninglate.metrics.RoutesCallMetrics;
 import com.proj.backendrunninglate.requests.GenericRouteRequest;
 import com.proj.backendrunninglate.requests.RouteRequest;
+import com.proj.backendrunninglate.web.RawJson;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class NavigationService {
 
+    // routes.distanceMeters feeds the run distance and the remaining distance behind the pace
+    static final String FIELD_MASK = "routes.distanceMeters,routes.legs.steps.distanceMeters,routes.polyline.encodedPolyline";
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-    private final AccountRepository accountRepository;
+    private final LiveRunRegistry liveRunRegistry;
+    private final Bulkhead routesBulkhead;
+    private final RoutesCallMetrics routesCallMetrics;
 
     @Value("${google.api.key}")
     private String apiKey;
 
+    @Value("${google.routes.url:https://routes.googleapis.com/directions/v2:computeRoutes}")
+    private String routesUrl;
+
     @Autowired
-    public NavigationService(RestTemplate restTemplate, ObjectMapper objectMapper, AccountRepository accountRepository) {
+    public NavigationService(RestTemplate restTemplate, ObjectMapper objectMapper, LiveRunRegistry liveRunRegistry, Bulkhead routesBulkhead, RoutesCallMetrics routesCallMetrics) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
-        this.accountRepository = accountRepository;
+        this.liveRunRegistry = liveRunRegistry;
+        this.routesBulkhead = routesBulkhead;
+        this.routesCallMetrics = routesCallMetrics;
     }
 
-    @Transactional
+    // Served from the live run registry: a ping reads and writes no rows while this instance owns the run
     public ResponseEntity<?> getRoute(@RequestBody RouteRequest request) {
-        String url = "https://routes.googleapis.com/directions/v2:computeRoutes";
-
-        // Headers
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("X-Goog-Api-Key", apiKey);
-        headers.set("X-Goog-FieldMask", "routes.legs.steps.distanceMeters,routes.polyline.encodedPolyline");
-
-        Map<String, Object> body = new HashMap<>();
-        Map<String, Object> origin = Map.of(
-                "location", Map.of(
-                        "latLng", Map.of("latitude", request.currentLat, "longitude", request.currentLng)
-                )
-        );
-        Map<String, Object> destination = Map.of(
-                "location", Map.of(
-                        "latLng", Map.of("latitude", request.destinationLat, "longitude", request.destinationLng)
-                )
-        );
-        body.put("origin", origin);
-        body.put("destination", destination);
-        body.put("travelMode", "WALK");
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-
         try {
-
-            Account account = accountRepository.findByEmail(request.getEmail()).orElseThrow(
-                    () -> new IllegalArgumentException("Account does not exist")
+            liveRunRegistry.get(request.getEmail()).orElseThrow(
+                    () -> new IllegalArgumentException("No active run for this account")
             );
 
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
+            RawJson route = route(request.currentLat, request.currentLng, request.destinationLat, request.destinationLng);
+            int remainingMeters = distanceMeters(objectMapper, route);
 
-            account.getActiveRun().setOriginLat(request.currentLat);
-            account.getActiveRun().setOriginLng(request.currentLng);
-            account.getActiveRun().setDestinationLat(request.destinationLat);
-            account.getActiveRun().setDestinationLng(request.destinationLng);
-            accountRepository.save(account);
+            liveRunRegistry.update(request.getEmail(), state -> state.withPosition(
+                    request.currentLat, request.currentLng, request.destinationLat, request.destinationLng, remainingMeters));
 
-            return ResponseEntity.ok(response.getBody());
+            return ResponseEntity.ok(route);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e));
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error(e));
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\": \"" + e.getMessage() + "\"}");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error(e));
         }
     }
 
-    @Transactional
     public ResponseEntity<?> getGenericRoute(@RequestBody GenericRouteRequest request) {
-        String url = "https://routes.googleapis.com/directions/v2:computeRoutes";
+        try {
+            ResponseEntity<String> response = computeRoutes(request.currentLat, request.currentLng, request.destinationLat, request.destinationLng);
+            return ResponseEntity.ok(new RawJson(response.getBody()));
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error(e));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error(e));
+        }
+    }
+
+    public RawJson route(double originLat, double originLng, double destinationLat, double destinationLng) {
+        return new RawJson(computeRoutes(originLat, originLng, destinationLat, destinationLng).getBody());
+    }
+
+    // Upstream error messages carry quotes and newlines from the response body, so the body is built by Jackson
+    private RawJson error(Exception e) {
+        return new RawJson(objectMapper.createObjectNode().put("error", String.valueOf(e.getMessage())).toString());
+    }
+
+    // Length of the first route; a response without one counts as nothing left to run
+    static int distanceMeters(ObjectMapper objectMapper, RawJson route) throws IOException {
+        JsonNode firstRoute = objectMapper.readTree(route.json()).path("routes").path(0);
+        return firstRoute.path("distanceMeters").asInt();
+    }
 
+    private ResponseEntity<String> computeRoutes(double originLat, double originLng, double destinationLat, double destinationLng) {
         // Headers
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set("X-Goog-Api-Key", apiKey);
-        headers.set("X-Goog-FieldMask", "routes.legs.steps.distanceMeters,routes.polyline.encodedPolyline");
+        headers.set("X-Goog-FieldMask", FIELD_MASK);
 
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(routesRequestBody(originLat, originLng, destinationLat, destinationLng), headers);
+
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<String> response = routesBulkhead.call(() -> restTemplate.exchange(routesUrl, HttpMethod.POST, entity, String.class));
+            routesCallMetrics.record(RoutesCallMetrics.Outcome.SUCCESS, start);
+            return response;
+        } catch (BulkheadFullException e) {
+            routesCallMetrics.record(RoutesCallMetrics.Outcome.REJECTED, start);
+            throw e;
+        } catch (HttpClientErrorException e) {
+            routesCallMetrics.record(RoutesCallMetrics.Outcome.CLIENT_ERROR, start);
+            throw e;
+        } catch (HttpServerErrorException e) {
+            routesCallMetrics.record(RoutesCallMetrics.Outcome.SERVER_ERROR, start);
+            throw e;
+        } catch (RuntimeException e) {
+            routesCallMetrics.record(RoutesCallMetrics.Outcome.ERROR, start);
+            throw e;
+        }
+    }
+
+    static Map<String, Object> routesRequestBody(double originLat, double originLng, double destinationLat, double destinationLng) {
         Map<String, Object> body = new HashMap<>();
         Map<String, Object> origin = Map.of(
                 "location", Map.of(
-                        "latLng", Map.of("latitude", request.currentLat, "longitude", request.currentLng)
+                        "latLng", Map.of("latitude", originLat, "longitude", originLng)
                 )
         );
         Map<String, Object> destination = Map.of(
                 "location", Map.of(
-                        "latLng", Map.of("latitude", request.destinationLat, "longitude", request.destinationLng)
+                        "latLng", Map.of("latitude", destinationLat, "longitude", destinationLng)
                 )
         );
         body.put("origin", origin);
         body.put("destination", destination);
         body.put("travelMode", "WALK");
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
-            return ResponseEntity.ok(response.getBody());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\": \"" + e.getMessage() + "\"}");
-        }
+        return body;
     }
 }
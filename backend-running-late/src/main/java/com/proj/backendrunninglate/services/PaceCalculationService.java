@@ -1,14 +1,63 @@
 package com.proj.backendrunninglate.services;
 
+import com.proj.backendrunninglate.cluster.LiveRunState;
 import com.proj.backendrunninglate.responses.PaceResponse;
+import com.proj.backendrunninglate.responses.PaceStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+
 @Service
 public class PaceCalculationService {
 
-    // TODO: Implement
-    public PaceResponse calculatePace(String email) {
-        return null;
+    // Within this share of the planned pace the runner counts as on pace
+    private static final int TOLERANCE_PERCENT = 5;
+
+    public PaceResponse calculatePace(LiveRunState run, Date now) {
+        int remainingMeters = run.remainingMeters();
+        if (remainingMeters <= 0) {
+            return new PaceResponse(PaceStatus.ON_PACE, 0, 0, formatPace(0));
+        }
+        if (!now.before(run.neededArrivalTime())) {
+            return new PaceResponse(PaceStatus.LATE, remainingMeters, 0, null);
+        }
+
+        long required = requiredSecondsPerKm(remainingMeters, now, run.neededArrivalTime());
+        long planned = run.distance() > 0 && run.startTime().before(run.neededArrivalTime())
+                ? requiredSecondsPerKm(run.distance(), run.startTime(), run.neededArrivalTime())
+                : required;
+        return new PaceResponse(statusOf(required, planned), remainingMeters, required, formatPace(required));
+    }
+
+    // Having more time per kilometre left than planned means the runner has banked time
+    static PaceStatus statusOf(long requiredSecondsPerKm, long plannedSecondsPerKm) {
+        if (requiredSecondsPerKm * 100 > plannedSecondsPerKm * (100 + TOLERANCE_PERCENT)) {
+            return PaceStatus.AHEAD;
+        }
+        if (requiredSecondsPerKm * 100 < plannedSecondsPerKm * (100 - TOLERANCE_PERCENT)) {
+            return PaceStatus.LATE;
+        }
+        return PaceStatus.ON_PACE;
+    }
+
+    public long requiredSecondsPerKm(int remainingMeters, Date now, Date neededArrivalTime) {
+        if (remainingMeters <= 0) {
+            return 0;
+        }
+        long remainingMillis = neededArrivalTime.getTime() - now.getTime();
+        if (remainingMillis <= 0) {
+            throw new IllegalStateException("Needed arrival time has already passed");
+        }
+        return remainingMillis / remainingMeters;
+    }
+
+    public String formatPace(long secondsPerKm) {
+        long seconds = secondsPerKm % 60;
+        StringBuilder pace = new StringBuilder(12).append(secondsPerKm / 60).append(':');
+        if (seconds < 10) {
+            pace.append('0');
+        }
+        return pace.append(seconds).append(" min/km").toString();
     }
 
 }
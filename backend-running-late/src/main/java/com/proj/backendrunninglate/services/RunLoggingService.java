@@ -1,21 +1,25 @@
 package com.proj.backendrunninglate.services;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.backendrunninglate.cluster.LiveRunRegistry;
+import com.proj.backendrunninglate.cluster.LiveRunState;
 import com.proj.backendrunninglate.models.Account;
 import com.proj.backendrunninglate.models.ActiveRun;
 import com.proj.backendrunninglate.models.PastRun;
 import com.proj.backendrunninglate.repositories.AccountRepository;
 import com.proj.backendrunninglate.repositories.ActiveRunRepository;
 import com.proj.backendrunninglate.repositories.PastRunRepository;
-import com.proj.backendrunninglate.requests.RouteRequest;
 import com.proj.backendrunninglate.requests.SaveRunRequest;
 import com.proj.backendrunninglate.requests.StartRunRequest;
-import org.springframework.http.HttpStatus;
+import com.proj.backendrunninglate.web.RawJson;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
 
 @Service
@@ -27,6 +31,9 @@ public class RunLoggingService {
     private final AccountRepository accountRepository;
     private final ActiveRunRepository activeRunRepository;
     private final PastRunRepository pastRunRepository;
+    private final LiveRunRegistry liveRunRegistry;
+    private final MailOutboxService mailOutboxService;
+    private final TransactionTemplate transactionTemplate;
 
     public RunLoggingService(
             ObjectMapper objectMapper,
@@ -34,7 +41,10 @@ public class RunLoggingService {
             AccountRepository accountRepository,
             PaceCalculationService paceCalculationService,
             ActiveRunRepository activeRunRepository,
-            PastRunRepository pastRunRepository
+            PastRunRepository pastRunRepository,
+            LiveRunRegistry liveRunRegistry,
+            MailOutboxService mailOutboxService,
+            TransactionTemplate transactionTemplate
     ) {
         this.objectMapper = objectMapper;
         this.navigationService = navigationService;
@@ -42,97 +52,104 @@ public class RunLoggingService {
         this.paceCalculationService = paceCalculationService;
         this.activeRunRepository = activeRunRepository;
         this.pastRunRepository = pastRunRepository;
+        this.liveRunRegistry = liveRunRegistry;
+        this.mailOutboxService = mailOutboxService;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
-    public ResponseEntity<?> startRun(StartRunRequest startRunRequest) {
-        Account account = accountRepository.findByEmail(startRunRequest.getEmail()).orElseThrow(
+    // Not transactional: the Routes call runs before a pooled connection is taken, then the run is written in one short transaction
+    public ResponseEntity<?> startRun(StartRunRequest startRunRequest) throws IOException {
+        Date neededArrivalTime = parseArrivalTime(startRunRequest.getNeededArrivalTime());
+        if (!neededArrivalTime.after(new Date())) {
+            throw new IllegalArgumentException("Needed arrival time has already passed");
+        }
+
+        // Rechecked under the row lock below; this only spares the Routes call for unknown accounts and runs in progress
+        boolean running = accountRepository.findRunningByEmail(startRunRequest.getEmail()).orElseThrow(
                 () -> new IllegalArgumentException("Account does not exist")
         );
-
-        if (account.getActiveRun() != null) {
+        if (running) {
             throw new IllegalStateException("An active run is already in progress for the user.");
         }
 
-        Date date = new Date();
-        Date dummyArrivalDate = new Date(date.getTime() + 1000 * 60 * 60 * 24);
-
-        String pace = "balls"; // TODO: Replace with actual pace logic later
-
-        ActiveRun activeRun = new ActiveRun(
+        RawJson route = navigationService.route(
                 startRunRequest.getOriginLat(),
                 startRunRequest.getOriginLng(),
                 startRunRequest.getDestinationLat(),
-                startRunRequest.getDestinationLng(),
-                date,
-                dummyArrivalDate,
-                pace,
-                account
-        );
-
-        RouteRequest routeRequest = new RouteRequest(
-                startRunRequest.getEmail(),
-                startRunRequest.getOriginLat(),
-                startRunRequest.getOriginLng(),
-                startRunRequest.getDestinationLat(),
-                startRunRequest.getDestinationLng(),
-                startRunRequest.getDistance(),
-                startRunRequest.getNeededArrivalTime()
+                startRunRequest.getDestinationLng()
         );
+        int distance = NavigationService.distanceMeters(objectMapper, route);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountRepository.findForUpdateByEmail(startRunRequest.getEmail()).orElseThrow(
+                    () -> new IllegalArgumentException("Account does not exist")
+            );
+
+            if (account.getActiveRun() != null) {
+                throw new IllegalStateException("An active run is already in progress for the user.");
+            }
+
+            Date date = new Date();
+            String pace = paceCalculationService.formatPace(
+                    paceCalculationService.requiredSecondsPerKm(distance, date, neededArrivalTime));
+
+            ActiveRun activeRun = new ActiveRun(
+                    startRunRequest.getOriginLat(),
+                    startRunRequest.getOriginLng(),
+                    startRunRequest.getDestinationLat(),
+                    startRunRequest.getDestinationLng(),
+                    date,
+                    neededArrivalTime,
+                    pace,
+                    account
+            );
+            activeRun.setDistance(distance);
+
+            activeRunRepository.save(activeRun);
+            account.setActiveRun(activeRun);
+            accountRepository.save(account);
 
-        activeRunRepository.save(activeRun);
-        account.setActiveRun(activeRun);
-        accountRepository.save(account);
+            liveRunRegistry.put(LiveRunState.from(account.getEmail(), activeRun));
+        });
 
-        ResponseEntity<?> routeData = navigationService.getRoute(routeRequest);
+        return ResponseEntity.ok(route);
+    }
 
-        if (routeData.getStatusCode() == HttpStatus.INTERNAL_SERVER_ERROR) {
-            throw new IllegalArgumentException(String.valueOf(routeData.getBody()));
+    // Epoch milliseconds, as the app sends them, or an ISO-8601 instant
+    static Date parseArrivalTime(String neededArrivalTime) {
+        if (neededArrivalTime == null || neededArrivalTime.isBlank()) {
+            throw new IllegalArgumentException("Needed arrival time is required");
         }
-
+        String value = neededArrivalTime.trim();
         try {
-            JsonNode root = objectMapper.readTree(routeData.getBody().toString());
-            JsonNode firstRoute = root.path("routes").get(0);
-            int distanceMeters = firstRoute.path("distanceMeters").asInt();
-
-            account.getActiveRun().setDistance(distanceMeters);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\": \"" + e.getMessage() + "\"}");
+            return new Date(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            try {
+                return Date.from(Instant.parse(value));
+            } catch (DateTimeParseException invalid) {
+                throw new IllegalArgumentException("Needed arrival time must be epoch milliseconds or an ISO-8601 instant");
+            }
         }
-
-        return routeData;
     }
 
     @Transactional
     public ResponseEntity<?> endRun(SaveRunRequest request) {
-        Account account = accountRepository.findByEmail(request.getEmail()).orElseThrow(
+        Account account = accountRepository.findWithActiveRunByEmail(request.getEmail()).orElseThrow(
                 () -> new IllegalArgumentException("Account does not exist")
         );
 
-        saveFinishedRun(request);
-
         if (account.getActiveRun() == null) {
             throw new IllegalStateException("No active run to end.");
-        } else {
-            ActiveRun temp = account.getActiveRun();
-            account.setActiveRun(null);
-            activeRunRepository.delete(temp);
-            activeRunRepository.flush();
-            accountRepository.save(account);
         }
 
+        // Saving the finished run also clears and deletes the active run
+        saveFinishedRun(account, request);
+
+        liveRunRegistry.remove(account.getEmail());
         return ResponseEntity.ok().build();
     }
 
-    public void saveFinishedRun(SaveRunRequest request) {
-        Account account = accountRepository.findByEmail(request.getEmail()).orElseThrow(
-                () -> new IllegalArgumentException("Account does not exist")
-        );
-
-        if (account.getActiveRun() == null) {
-            throw new IllegalStateException("No active run to save.");
-        }
-
+    private void saveFinishedRun(Account account, SaveRunRequest request) {
         ActiveRun run = account.getActiveRun();
         Date date = new Date();
 
@@ -145,11 +162,15 @@ public class RunLoggingService {
                 "N/A",
                 date
         );
+        pastRun.setAccount(account);
 
         pastRunRepository.save(pastRun);
+        mailOutboxService.enqueueRunMails(account, pastRun, run.getNeededArrivalTime(),
+                request.getTimeFinished() != null ? request.getTimeFinished() : date);
 
         // Clear the active run
         account.setActiveRun(null);
+        account.profileChanged();
         activeRunRepository.delete(run);
         activeRunRepository.flush();
         accountRepository.save(account);
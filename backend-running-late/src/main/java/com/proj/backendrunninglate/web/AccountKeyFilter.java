@@ -0,0 +1,97 @@
+package com.proj.backendrunninglate.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resolves the account a request acts on, from the path or from the JSON or
+ * CBOR body, once per request, so cluster routing, authentication and
+ * admission control do not each parse the body again.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class AccountKeyFilter extends OncePerRequestFilter {
+
+    public static final String ACCOUNT_ATTRIBUTE = AccountKeyFilter.class.getName() + ".account";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    public AccountKeyFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public static String accountOf(HttpServletRequest request) {
+        return (String) request.getAttribute(ACCOUNT_ATTRIBUTE);
+    }
+
+    public static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // Whether the endpoint acts on one account, named in the path or the body
+    public static boolean namesAccount(HttpServletRequest request) {
+        String path = pathOf(request);
+        return path.startsWith("/pace/") || path.startsWith("/accounts/get/") || namesAccountInBody(request, path);
+    }
+
+    private static boolean namesAccountInBody(HttpServletRequest request, String path) {
+        return "POST".equals(request.getMethod()) && (path.startsWith("/run/") || path.equals("/route"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = pathOf(request);
+
+        if (path.startsWith("/pace/")) {
+            request.setAttribute(ACCOUNT_ATTRIBUTE, segment(path, "/pace/"));
+        } else if (path.startsWith("/accounts/get/")) {
+            request.setAttribute(ACCOUNT_ATTRIBUTE, segment(path, "/accounts/get/"));
+        } else if (namesAccountInBody(request, path)) {
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            String email = emailFromBody(cached.getBody(), request.getContentType());
+            if (email != null) {
+                cached.setAttribute(ACCOUNT_ATTRIBUTE, email);
+            }
+            chain.doFilter(cached, response);
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    // The request URI is still percent-encoded; decode it the way Spring binds the @PathVariable
+    private static String segment(String path, String prefix) {
+        return UriUtils.decode(path.substring(prefix.length()), StandardCharsets.UTF_8);
+    }
+
+    // Read with the same format the controller will bind the body with
+    private String emailFromBody(byte[] body, String contentType) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            boolean cbor = contentType != null && MediaType.APPLICATION_CBOR.isCompatibleWith(MediaType.parseMediaType(contentType));
+            JsonNode email = (cbor ? cborMapper : objectMapper).readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText() : null;
+        } catch (IOException | InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.proj.backendrunninglate.web;
+
+/**
+ * A JSON document that is already serialised, such as an upstream API response.
+ * JSON clients get the text as-is; binary clients get it transcoded.
+ */
+public record RawJson(String json) {
+}
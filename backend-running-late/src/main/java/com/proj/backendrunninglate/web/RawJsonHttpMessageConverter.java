@@ -0,0 +1,60 @@
+package com.proj.backendrunninglate.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes {@link RawJson} without binding it to objects first: the text is
+ * copied straight through for JSON, and streamed token by token into CBOR
+ * when the client asks for it.
+ */
+public class RawJsonHttpMessageConverter extends AbstractHttpMessageConverter<RawJson> {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CBORFactory cborFactory = new CBORFactory();
+
+    public RawJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return RawJson.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected RawJson readInternal(Class<? extends RawJson> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("RawJson is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(RawJson body, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        if (contentType == null || !MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            outputMessage.getBody().write(body.json().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(body.json());
+             JsonGenerator generator = cborFactory.createGenerator(outputMessage.getBody())) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.proj.backendrunninglate.web;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * The body formats negotiated in {@code WireFormatConfig}, for code that needs
+ * to know ahead of serialisation which one a request will get.
+ */
+public enum WireFormat {
+    JSON,
+    CBOR;
+
+    // Mirrors Spring's negotiation: best quality first, and wildcards resolve to JSON as the first converter
+    public static WireFormat of(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return JSON;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return CBOR;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,36 @@
+package com.proj.backendrunninglate;
+
+import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.responses.AccountResponse;
+import com.proj.backendrunninglate.responses.PastRunResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entitiesAreReflectivelyConstructible() {
+        for (Class<?> entity : NativeRuntimeHints.ENTITIES) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entity)
+                    .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                    .test(hints), entity.getName());
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Account.class, "getEmail").test(hints));
+    }
+
+    @Test
+    void responseTypesAreBindable() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(AccountResponse.class.getMethod("getPastRuns")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(PastRunResponse.class.getMethod("getAveragePace")).test(hints));
+    }
+}
@@ -0,0 +1,91 @@
+package com.proj.backendrunninglate.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.proj.backendrunninglate.requests.AccountRequest;
+import com.proj.backendrunninglate.requests.LoginRequest;
+import com.proj.backendrunninglate.services.AccountService;
+import com.proj.backendrunninglate.services.AuthenticationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"auth.required=true", "admission.enabled=false"})
+@AutoConfigureMockMvc
+class AuthenticationFilterTest {
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Test
+    void cborBodyNamingAnotherAccountIsRefused() throws Exception {
+        String runner = account();
+        String victim = account();
+        String token = login(runner);
+
+        mockMvc.perform(post("/run/end")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(Map.of("email", victim, "timeFinished", 0))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void cborBodyNamingTheTokensAccountGetsThrough() throws Exception {
+        String runner = account();
+        String token = login(runner);
+
+        // No active run, so the controller answers; the point is that the filter let it through
+        mockMvc.perform(post("/run/end")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(Map.of("email", runner, "timeFinished", 0))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unreadableBodyIsRefusedRatherThanWavedThrough() throws Exception {
+        String token = login(account());
+
+        mockMvc.perform(post("/route")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("not json"))
+                .andExpect(status().isForbidden());
+    }
+
+    private String account() {
+        AccountRequest request = new AccountRequest();
+        request.setName("Runner");
+        request.setEmail("auth-" + UUID.randomUUID() + "@example.com");
+        request.setPassword("secret");
+        return accountService.createAccount(request).getEmail();
+    }
+
+    private String login(String email) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword("secret");
+        return authenticationService.login(request).getToken();
+    }
+}
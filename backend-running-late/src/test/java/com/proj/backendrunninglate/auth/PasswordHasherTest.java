@@ -0,0 +1,35 @@
+package com.proj.backendrunninglate.auth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1000, 1, 4, 5000);
+
+    @AfterEach
+    void shutdown() {
+        hasher.destroy();
+    }
+
+    @Test
+    void hashesAreSaltedAndVerifiable() {
+        String first = hasher.hash("correct horse");
+        String second = hasher.hash("correct horse");
+
+        assertNotEquals(first, second);
+        assertTrue(hasher.matches("correct horse", first));
+        assertFalse(hasher.matches("wrong horse", first));
+        assertFalse(hasher.needsRehash(first));
+    }
+
+    @Test
+    void legacyPlaintextPasswordsStillMatchAndNeedRehash() {
+        assertTrue(hasher.matches("secret", "secret"));
+        assertFalse(hasher.matches("Secret", "secret"));
+        assertTrue(hasher.needsRehash("secret"));
+        assertTrue(new PasswordHasher(2000, 1, 4, 5000).needsRehash(hasher.hash("secret")));
+    }
+}
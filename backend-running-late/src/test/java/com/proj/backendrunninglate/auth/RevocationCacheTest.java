@@ -0,0 +1,39 @@
+package com.proj.backendrunninglate.auth;
+
+import com.proj.backendrunninglate.concurrency.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationCacheTest {
+
+    private static TokenClaims token(long id, long expiresAtMillis) {
+        return new TokenClaims(1, "runner@example.com", id, 0, expiresAtMillis);
+    }
+
+    @Test
+    void refusesNewRevocationsOnceFullOfLiveTokens() {
+        long later = System.currentTimeMillis() + 60_000;
+        RevocationCache cache = new RevocationCache(2);
+        cache.revoke(token(1, later));
+        cache.revoke(token(2, later));
+
+        assertThrows(BulkheadFullException.class, () -> cache.revoke(token(3, later)));
+        assertTrue(cache.isRevoked(token(1, later)));
+        assertTrue(cache.isRevoked(token(2, later)));
+        // Revoking a token that is already in does not need room
+        cache.revoke(token(2, later));
+    }
+
+    @Test
+    void expiredEntriesMakeRoom() {
+        long later = System.currentTimeMillis() + 60_000;
+        RevocationCache cache = new RevocationCache(2);
+        cache.revoke(token(1, 0));
+        cache.revoke(token(2, later));
+
+        cache.revoke(token(3, later));
+        assertFalse(cache.isRevoked(token(1, 0)));
+        assertTrue(cache.isRevoked(token(3, later)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.proj.backendrunninglate.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenCodecTest {
+
+    private final TokenCodec codec = new TokenCodec("0123456789abcdef0123456789abcdef".getBytes());
+    private final TokenClaims claims = new TokenClaims(42, "runner@example.com", 7, 1_000, 61_000);
+
+    @Test
+    void roundTripsClaims() {
+        assertEquals(Optional.of(claims), codec.decode(codec.encode(claims), 2_000));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        assertTrue(codec.decode(codec.encode(claims), 61_000).isEmpty());
+    }
+
+    @Test
+    void rejectsTamperedOrForeignTokens() {
+        String token = codec.encode(claims);
+        String forged = new TokenCodec("another-key-another-key-another!".getBytes()).encode(claims);
+        String otherAccount = codec.encode(new TokenClaims(43, "other@example.com", 7, 1_000, 61_000));
+        String spliced = otherAccount.substring(0, otherAccount.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertTrue(codec.decode(forged, 2_000).isEmpty());
+        assertTrue(codec.decode(spliced, 2_000).isEmpty());
+        assertTrue(codec.decode("not-a-token", 2_000).isEmpty());
+        assertTrue(codec.decode("!!!.???", 2_000).isEmpty());
+    }
+}
@@ -0,0 +1,88 @@
+package com.proj.backendrunninglate.cluster;
+
+import com.proj.backendrunninglate.web.AccountKeyFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ClusterRoutingFilterTest {
+
+    private static final String SELF = "http://localhost:8080";
+    private static final String PEER = "http://localhost:8081";
+    private static final String TOKEN = "Bearer token";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer peer = MockRestServiceServer.bindTo(restTemplate).build();
+
+    private static ClusterMembership membership(String mode) {
+        return new ClusterMembership(true, SELF, List.of(SELF, PEER), 64, mode, "s3cret");
+    }
+
+    private static String emailOwnedByPeer(ClusterMembership membership) {
+        return IntStream.range(0, 1000)
+                .mapToObj(i -> "runner" + i + "@example.com")
+                .filter(email -> !membership.isOwnedLocally(email))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private MockHttpServletResponse filter(ClusterMembership membership, String email, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/pace/" + email);
+        request.setAttribute(AccountKeyFilter.ACCOUNT_ATTRIBUTE, email);
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ClusterRoutingFilter(membership, restTemplate).doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void forwardsTheBearerTokenToTheOwner() throws Exception {
+        ClusterMembership membership = membership("forward");
+        String email = emailOwnedByPeer(membership);
+        peer.expect(requestTo(PEER + "/pace/" + email))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, TOKEN))
+                .andExpect(header(ClusterSecretFilter.SECRET_HEADER, "s3cret"))
+                .andRespond(withSuccess("{\"status\":\"ON_PACE\"}", MediaType.APPLICATION_JSON));
+
+        MockHttpServletResponse response = filter(membership, email, TOKEN);
+
+        peer.verify();
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"status\":\"ON_PACE\"}", response.getContentAsString());
+    }
+
+    @Test
+    void redirectsOnlyRequestsWithoutAToken() throws Exception {
+        ClusterMembership membership = membership("redirect");
+        String email = emailOwnedByPeer(membership);
+
+        MockHttpServletResponse anonymous = filter(membership, email, null);
+        assertEquals(307, anonymous.getStatus());
+        assertEquals(PEER + "/pace/" + email, anonymous.getHeader(HttpHeaders.LOCATION));
+
+        // A client following the 307 to another host would drop the token, so this one is proxied instead
+        peer.expect(requestTo(PEER + "/pace/" + email))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, TOKEN))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        MockHttpServletResponse authenticated = filter(membership, email, TOKEN);
+
+        peer.verify();
+        assertEquals(200, authenticated.getStatus());
+    }
+}
@@ -0,0 +1,61 @@
+package com.proj.backendrunninglate.cluster;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterSecretFilterTest {
+
+    private static final String SELF = "http://localhost:8081";
+
+    private static MockHttpServletResponse filter(String configured, MockHttpServletRequest request)
+            throws ServletException, IOException {
+        ClusterMembership membership = new ClusterMembership(true, SELF, List.of(SELF), 64, "forward", configured);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ClusterSecretFilter(membership).doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void refusesClusterEndpointsWithoutTheSecret() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/cluster/members");
+        assertEquals(403, filter("s3cret", request).getStatus());
+
+        request = new MockHttpServletRequest("PUT", "/cluster/members");
+        request.addHeader(ClusterSecretFilter.SECRET_HEADER, "guess");
+        assertEquals(403, filter("s3cret", request).getStatus());
+    }
+
+    @Test
+    void staysClosedWhenNoSecretIsConfigured() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/cluster/handoff");
+        request.addHeader(ClusterSecretFilter.SECRET_HEADER, "");
+        assertEquals(403, filter("", request).getStatus());
+    }
+
+    @Test
+    void marksPeersThatPresentTheSecret() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/cluster/handoff");
+        request.addHeader(ClusterSecretFilter.SECRET_HEADER, "s3cret");
+        assertEquals(200, filter("s3cret", request).getStatus());
+        assertTrue(ClusterSecretFilter.isPeer(request));
+    }
+
+    @Test
+    void onlyTrustsTheForwardedMarkerFromPeers() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/route");
+        request.addHeader(ClusterRoutingFilter.FORWARDED_HEADER, SELF);
+        assertEquals(403, filter("s3cret", request).getStatus());
+
+        request = new MockHttpServletRequest("POST", "/route");
+        assertEquals(200, filter("s3cret", request).getStatus());
+        assertFalse(ClusterSecretFilter.isPeer(request));
+    }
+}
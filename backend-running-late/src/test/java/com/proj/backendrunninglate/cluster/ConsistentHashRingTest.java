@@ -0,0 +1,51 @@
+package com.proj.backendrunninglate.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> MEMBERS = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    @Test
+    void ownershipIsDeterministicAcrossInstances() {
+        ConsistentHashRing first = new ConsistentHashRing(MEMBERS, 64);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("http://c:8080", "http://a:8080", "http://b:8080"), 64);
+
+        for (int i = 0; i < 1000; i++) {
+            String email = "runner" + i + "@example.com";
+            assertEquals(first.ownerOf(email), second.ownerOf(email));
+        }
+    }
+
+    @Test
+    void accountsSpreadAcrossMembers() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < 9000; i++) {
+            counts.merge(ring.ownerOf("runner" + i + "@example.com"), 1, Integer::sum);
+        }
+
+        for (String member : MEMBERS) {
+            assertTrue(counts.getOrDefault(member, 0) > 2000, member + " owns " + counts.get(member));
+        }
+    }
+
+    @Test
+    void addingMemberOnlyMovesAccountsToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(MEMBERS, 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080"), 128);
+
+        for (int i = 0; i < 1000; i++) {
+            String email = "runner" + i + "@example.com";
+            String owner = after.ownerOf(email);
+            assertTrue(owner.equals(before.ownerOf(email)) || owner.equals("http://d:8080"));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.proj.backendrunninglate.cluster;
+
+import com.proj.backendrunninglate.models.ActiveRun;
+import com.proj.backendrunninglate.repositories.ActiveRunRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LiveRunRegistryTest {
+
+    private static final String A = "http://localhost:8081";
+    private static final String B = "http://localhost:8082";
+    private static final String C = "http://localhost:8083";
+
+    private final Map<String, LiveRunRegistry> instances = new HashMap<>();
+    private final Map<String, ClusterMembership> memberships = new HashMap<>();
+
+    private void start(String self, List<String> members) {
+        ActiveRunRepository repository = mock(ActiveRunRepository.class);
+        when(repository.findByAccountEmail(anyString())).thenReturn(Optional.empty());
+
+        ClusterMembership membership = new ClusterMembership(true, self, members, 64, "forward", "secret");
+        HandoffClient inProcess = (member, runs) -> instances.get(member).accept(runs);
+        memberships.put(self, membership);
+        instances.put(self, new LiveRunRegistry(membership, repository, inProcess));
+    }
+
+    private static LiveRunState run(String email) {
+        return LiveRunState.from(email, new ActiveRun());
+    }
+
+    @Test
+    void runsMoveToNewOwnerWhenMemberJoins() {
+        start(A, List.of(A, B));
+        start(B, List.of(A, B));
+
+        for (int i = 0; i < 200; i++) {
+            String email = "runner" + i + "@example.com";
+            instances.get(memberships.get(A).ownerOf(email)).put(run(email));
+        }
+
+        start(C, List.of(A, B, C));
+        memberships.get(A).updateMembers(List.of(A, B, C));
+        memberships.get(B).updateMembers(List.of(A, B, C));
+
+        assertTrue(instances.get(C).size() > 0);
+        assertEquals(200, instances.get(A).size() + instances.get(B).size() + instances.get(C).size());
+        for (int i = 0; i < 200; i++) {
+            String email = "runner" + i + "@example.com";
+            String owner = memberships.get(C).ownerOf(email);
+            assertTrue(instances.get(owner).get(email).isPresent(), email + " missing on " + owner);
+        }
+    }
+
+    @Test
+    void drainingMemberHandsOffEverything() {
+        start(A, List.of(A, B));
+        start(B, List.of(A, B));
+
+        for (int i = 0; i < 100; i++) {
+            String email = "runner" + i + "@example.com";
+            instances.get(memberships.get(A).ownerOf(email)).put(run(email));
+        }
+
+        memberships.get(A).updateMembers(List.of(B));
+        memberships.get(B).updateMembers(List.of(B));
+
+        assertEquals(0, instances.get(A).size());
+        assertEquals(100, instances.get(B).size());
+    }
+
+    @Test
+    void runsAppearAndDisappearOnlyAfterCommit() {
+        start(A, List.of(A));
+        LiveRunRegistry registry = instances.get(A);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.put(run("runner@example.com"));
+            assertEquals(0, registry.size());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1, registry.size());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.remove("runner@example.com");
+            assertEquals(1, registry.size());
+            // Rolled back: no afterCommit callbacks run
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void updatesApplyToTheCurrentSnapshot() {
+        start(A, List.of(A));
+        LiveRunRegistry registry = instances.get(A);
+        registry.put(run("runner@example.com"));
+
+        registry.update("runner@example.com", state -> state.withPosition(1, 2, 3, 4, 500));
+        registry.update("missing@example.com", state -> state.withPosition(1, 2, 3, 4, 500));
+
+        LiveRunState state = registry.get("runner@example.com").orElseThrow();
+        assertEquals(1, state.currentLat());
+        assertEquals(500, state.remainingMeters());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void pingDuringHandoffFollowsTheRunToItsNewOwner() {
+        start(B, List.of(A, B));
+        String email = IntStream.range(0, 1000)
+                .mapToObj(i -> "runner" + i + "@example.com")
+                .filter(candidate -> memberships.get(B).ownerOf(candidate).equals(B))
+                .findFirst()
+                .orElseThrow();
+
+        // The ping lands on the old owner after the snapshot was taken and before the entry is dropped
+        AtomicReference<LiveRunRegistry> oldOwner = new AtomicReference<>();
+        HandoffClient pingMidway = (member, runs) -> {
+            oldOwner.get().update(email, state -> state.withPosition(1, 2, 3, 4, 500));
+            instances.get(member).accept(runs);
+        };
+        ClusterMembership membership = new ClusterMembership(true, A, List.of(A), 64, "forward", "secret");
+        oldOwner.set(new LiveRunRegistry(membership, mock(ActiveRunRepository.class), pingMidway));
+        oldOwner.get().put(run(email));
+
+        membership.updateMembers(List.of(A, B));
+
+        assertEquals(0, oldOwner.get().size());
+        assertEquals(500, instances.get(B).get(email).orElseThrow().remainingMeters());
+    }
+}
@@ -0,0 +1,41 @@
+package com.proj.backendrunninglate.cluster;
+
+import com.proj.backendrunninglate.auth.TokenClaims;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class PeerRevocationsTest {
+
+    private static final String A = "http://localhost:8081";
+    private static final String B = "http://localhost:8082";
+    private static final String C = "http://localhost:8083";
+
+    @Test
+    void logoutReachesEveryOtherMemberEvenIfOneFails() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer peers = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        ClusterMembership membership = new ClusterMembership(true, A, List.of(A, B, C), 64, "forward", "s3cret");
+
+        peers.expect(once(), requestTo(B + "/cluster/revocations"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(ClusterSecretFilter.SECRET_HEADER, "s3cret"))
+                .andExpect(jsonPath("$.tokenId").value(42))
+                .andRespond(withServerError());
+        peers.expect(once(), requestTo(C + "/cluster/revocations"))
+                .andExpect(jsonPath("$.tokenId").value(42))
+                .andRespond(withSuccess());
+
+        new PeerRevocations(restTemplate, membership).broadcast(new TokenClaims(1, "runner@example.com", 42, 0, 60_000));
+
+        peers.verify();
+    }
+}
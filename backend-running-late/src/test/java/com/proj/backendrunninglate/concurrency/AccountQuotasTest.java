@@ -0,0 +1,36 @@
+package com.proj.backendrunninglate.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountQuotasTest {
+
+    @Test
+    void keysPastTheCapShareOneBucket() {
+        AccountQuotas quotas = new AccountQuotas(60, 2, 2);
+
+        assertTrue(quotas.tryAcquire("a"));
+        assertTrue(quotas.tryAcquire("b"));
+        assertTrue(quotas.tryAcquire("c"));
+        assertTrue(quotas.tryAcquire("d"));
+        assertFalse(quotas.tryAcquire("e"));
+        assertEquals(2, quotas.getTracked());
+        assertTrue(quotas.retryAfterSeconds("e") > 0);
+
+        // Tracked keys keep their own allowance
+        assertTrue(quotas.tryAcquire("a"));
+    }
+
+    @Test
+    void sweepingIdleBucketsMakesRoomAgain() throws Exception {
+        AccountQuotas quotas = new AccountQuotas(60_000, 1, 1);
+        assertTrue(quotas.tryAcquire("a"));
+        Thread.sleep(5);
+
+        quotas.evictIdle();
+        assertEquals(0, quotas.getTracked());
+        assertTrue(quotas.tryAcquire("b"));
+        assertEquals(1, quotas.getTracked());
+    }
+}
@@ -0,0 +1,52 @@
+package com.proj.backendrunninglate.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = 10_000_000L;
+
+    @Test
+    void growsWhileBusyAndBacksOffOnDrops() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                assertTrue(limiter.tryAcquire(Priority.HIGH));
+            }
+            while (limiter.getInFlight() > 0) {
+                limiter.release(RTT, false);
+            }
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10, "limit " + grown);
+
+        limiter.tryAcquire(Priority.HIGH);
+        limiter.release(RTT, true);
+        assertEquals((int) (grown * 0.9), limiter.getLimit(), 1);
+    }
+
+    @Test
+    void concurrentDropsAreNeverLost() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(400, 1, 400);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 5; i++) {
+                    limiter.release(RTT, true);
+                    limiter.release(RTT, false);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 40 drops from 400 leave about 400 * 0.9^40 ≈ 5; samples never raise it while nothing is in flight
+        assertEquals(5, limiter.getLimit(), 1);
+    }
+}
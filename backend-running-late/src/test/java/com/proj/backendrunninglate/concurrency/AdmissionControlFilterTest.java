@@ -0,0 +1,53 @@
+package com.proj.backendrunninglate.concurrency;
+
+import com.proj.backendrunninglate.auth.AuthenticationFilter;
+import com.proj.backendrunninglate.auth.TokenClaims;
+import com.proj.backendrunninglate.web.AccountKeyFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    // One request a minute with a burst of two, so the third request from one key is refused
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(
+            new AccountQuotas(1, 2, 1000), new AdaptiveConcurrencyLimiter(50, 8, 400), new SimpleMeterRegistry(), true);
+
+    private int route(String address, String email, TokenClaims claims) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/route");
+        request.setRemoteAddr(address);
+        request.setAttribute(AccountKeyFilter.ACCOUNT_ATTRIBUTE, email);
+        if (claims != null) {
+            request.setAttribute(AuthenticationFilter.CLAIMS_ATTRIBUTE, claims);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    void freshEmailsFromOneAddressShareItsQuota() throws Exception {
+        assertEquals(200, route("10.0.0.1", "a@example.com", null));
+        assertEquals(200, route("10.0.0.1", "b@example.com", null));
+        assertEquals(429, route("10.0.0.1", "c@example.com", null));
+
+        assertEquals(200, route("10.0.0.2", "d@example.com", null));
+    }
+
+    @Test
+    void verifiedAccountsAreChargedByAccountNotAddress() throws Exception {
+        TokenClaims runner = new TokenClaims(1, "runner@example.com", 7, 0, Long.MAX_VALUE);
+        TokenClaims other = new TokenClaims(2, "other@example.com", 8, 0, Long.MAX_VALUE);
+
+        assertEquals(200, route("10.0.0.1", "runner@example.com", runner));
+        assertEquals(200, route("10.0.0.1", "runner@example.com", runner));
+        assertEquals(429, route("10.0.0.1", "runner@example.com", runner));
+
+        // Same address, different account: its own bucket
+        assertEquals(200, route("10.0.0.1", "other@example.com", other));
+    }
+}
@@ -0,0 +1,33 @@
+package com.proj.backendrunninglate.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(1, 3, 0);
+
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.waitNanos(0));
+
+        assertTrue(bucket.tryAcquire(SECOND));
+        assertFalse(bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void idleBucketIsFull() {
+        TokenBucket bucket = new TokenBucket(1, 3, 0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdle(0));
+        assertTrue(bucket.isIdle(SECOND));
+    }
+}
@@ -0,0 +1,104 @@
+package com.proj.backendrunninglate.controllers;
+
+import com.proj.backendrunninglate.metrics.StatementCounter;
+import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.models.ActiveRun;
+import com.proj.backendrunninglate.repositories.AccountRepository;
+import com.proj.backendrunninglate.repositories.ActiveRunRepository;
+import com.proj.backendrunninglate.requests.SaveRunRequest;
+import com.proj.backendrunninglate.services.RunLoggingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProfileETagTest {
+
+    private static final String EMAIL = "etag@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ActiveRunRepository activeRunRepository;
+
+    @Autowired
+    private RunLoggingService runLoggingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createAccount() {
+        if (accountRepository.findByEmail(EMAIL).isEmpty()) {
+            accountRepository.save(new Account(EMAIL, "ETag", "secret"));
+        }
+    }
+
+    @Test
+    void matchingTagIsAnsweredFromTheVersionAlone() throws Exception {
+        String eTag = currentETag(MediaType.APPLICATION_JSON);
+        double before = notModifiedCount();
+
+        StatementCounter.reset();
+        mockMvc.perform(get("/accounts/get/" + EMAIL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        assertEquals(1, StatementCounter.current());
+        assertEquals(before + 1, notModifiedCount());
+    }
+
+    @Test
+    void finishingARunInvalidatesTheTag() throws Exception {
+        String eTag = currentETag(MediaType.APPLICATION_JSON);
+
+        Account account = accountRepository.findByEmail(EMAIL).orElseThrow();
+        ActiveRun run = activeRunRepository.save(new ActiveRun(45.5048, -73.5772, 45.5017, -73.5673,
+                new Date(), new Date(), "5:30 min/km", account));
+        account.setActiveRun(run);
+        accountRepository.save(account);
+        SaveRunRequest request = new SaveRunRequest();
+        request.setEmail(EMAIL);
+        runLoggingService.endRun(request);
+
+        mockMvc.perform(get("/accounts/get/" + EMAIL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        assertNotEquals(eTag, currentETag(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void jsonAndCborCopiesCarryDifferentTags() throws Exception {
+        assertNotEquals(currentETag(MediaType.APPLICATION_JSON), currentETag(MediaType.APPLICATION_CBOR));
+    }
+
+    private String currentETag(MediaType accept) throws Exception {
+        return mockMvc.perform(get("/accounts/get/" + EMAIL).accept(accept))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private double notModifiedCount() {
+        return meterRegistry.get("profile.loads").tag("result", "not_modified").counter().count();
+    }
+}
@@ -0,0 +1,143 @@
+package com.proj.backendrunninglate.controllers;
+
+import com.proj.backendrunninglate.cluster.ClusterSecretFilter;
+import com.proj.backendrunninglate.loadtest.LatencyDistribution;
+import com.proj.backendrunninglate.loadtest.RoutesStubServer;
+import com.proj.backendrunninglate.metrics.StatementCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Walks one account through every endpoint and fails when a request issues
+ * more SQL statements than its budget. A budget is what the endpoint's fetch
+ * plan needs today; an N+1 or an extra round trip pushes it over.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "admission.enabled=false",
+        "cluster.secret=budget",
+        // Queue mail as production does; the dispatcher itself never runs during the test
+        "mail.enabled=true",
+        "mail.dispatch-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+
+    private static final RoutesStubServer routes = RoutesStubServer.start(LatencyDistribution.fixed(0), 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void routesStub(DynamicPropertyRegistry registry) {
+        registry.add("google.routes.url", routes::getUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        routes.close();
+    }
+
+    @Test
+    void everyEndpointStaysWithinItsStatementBudget() throws Exception {
+        String email = "budget-" + UUID.randomUUID() + "@example.com";
+
+        // exists check, insert
+        perform(2, post("/accounts/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget\",\"email\":\"" + email + "\",\"password\":\"secret\"}"));
+        // account
+        String token = perform(1, post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"secret\"}"))
+                .getResponse().getContentAsString().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+
+        for (int run = 0; run < 3; run++) {
+            startRun(email);
+            pingRoute(email);
+            pingRoute(email);
+            // the live run is in memory
+            perform(0, get("/pace/" + email));
+            // account with active run, past run insert, account update, active run delete, summary mail insert
+            perform(5, post("/run/end")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"email\":\"" + email + "\",\"timeFinished\":" + System.currentTimeMillis() + "}"));
+        }
+
+        // version, account, past runs by foreign key: independent of the history length
+        String eTag = perform(3, get("/accounts/get/" + email))
+                .getResponse().getHeader(HttpHeaders.ETAG);
+        // version only
+        perform(1, get("/accounts/get/" + email).header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        perform(0, post("/route/generic")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"currentLat\":45.5048,\"currentLng\":-73.5772,\"destinationLat\":45.5017,\"destinationLng\":-73.5673}"));
+        // membership and handoffs live in memory
+        String members = perform(0, get("/cluster/members").header(ClusterSecretFilter.SECRET_HEADER, "budget"))
+                .getResponse().getContentAsString();
+        perform(0, put("/cluster/members")
+                .header(ClusterSecretFilter.SECRET_HEADER, "budget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(members));
+        perform(0, post("/cluster/handoff")
+                .header(ClusterSecretFilter.SECRET_HEADER, "budget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format(Locale.ROOT,
+                        "[{\"email\":\"handoff-%s@example.com\",\"originLat\":45.5048,\"originLng\":-73.5772,"
+                                + "\"currentLat\":45.5048,\"currentLng\":-73.5772,\"destinationLat\":45.5017,"
+                                + "\"destinationLng\":-73.5673,\"startTime\":%d,\"neededArrivalTime\":%d,"
+                                + "\"paceNeeded\":\"6:00\",\"distance\":1000,\"remainingMeters\":1000}]",
+                        UUID.randomUUID(), System.currentTimeMillis(), System.currentTimeMillis() + 1_200_000)));
+        perform(0, post("/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    // running check before the Routes call, locked account with active run, active run insert, account update
+    private void startRun(String email) throws Exception {
+        perform(4, post("/run/start")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format(Locale.ROOT,
+                        "{\"email\":\"%s\",\"originLat\":45.5048,\"originLng\":-73.5772,\"destinationLat\":45.5017,"
+                                + "\"destinationLng\":-73.5673,\"distance\":\"0\",\"neededArrivalTime\":\"%d\"}",
+                        email, System.currentTimeMillis() + 1_200_000)));
+    }
+
+    // the live state is already in memory, so no rows are read or written
+    private void pingRoute(String email) throws Exception {
+        perform(0, post("/route")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"currentLat\":45.5040,\"currentLng\":-73.5750,"
+                        + "\"destinationLat\":45.5017,\"destinationLng\":-73.5673}"));
+    }
+
+    private MvcResult perform(int budget, RequestBuilder request) throws Exception {
+        StatementCounter.reset();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        long statements = StatementCounter.current();
+
+        String endpoint = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        int status = result.getResponse().getStatus();
+        assertTrue(status < 400, endpoint + " returned " + status + ": " + result.getResponse().getContentAsString());
+        assertTrue(statements <= budget, endpoint + " issued " + statements + " statements, budget " + budget);
+        return result;
+    }
+}
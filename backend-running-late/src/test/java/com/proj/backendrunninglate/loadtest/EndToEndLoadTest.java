@@ -0,0 +1,72 @@
+package com.proj.backendrunninglate.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the commute workload against the full application on an in-memory
+ * database with the Routes API replaced by {@link RoutesStubServer}.
+ *
+ * <pre>
+ * ./gradlew loadTest -Dloadtest.users=200 -Dloadtest.duration-seconds=60 \
+ *     -Dloadtest.routes.latency=lognormal:120,0.6 -Dloadtest.routes.error-rate=0.02 \
+ *     -Dloadtest.max-p99-ms=500
+ * </pre>
+ */
+@Tag("load")
+@ActiveProfiles({"test", "loadtest"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EndToEndLoadTest {
+
+    private static final RoutesStubServer routes = RoutesStubServer.start(
+            LatencyDistribution.parse(System.getProperty("loadtest.routes.latency", "lognormal:80,0.4")),
+            Double.parseDouble(System.getProperty("loadtest.routes.error-rate", "0.01"))
+    );
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void routesStub(DynamicPropertyRegistry registry) {
+        registry.add("google.routes.url", routes::getUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        routes.close();
+    }
+
+    @Test
+    void commuteWorkload() {
+        LoadGenerator generator = new LoadGenerator(
+                "http://localhost:" + port,
+                Integer.getInteger("loadtest.users", 50),
+                Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 20)),
+                Integer.getInteger("loadtest.pings-per-run", 5),
+                Long.getLong("loadtest.think-ms", 100)
+        );
+
+        generator.run();
+        generator.report(System.out);
+        System.out.printf("routes stub: %d calls, %d injected failures%n", routes.getCalls(), routes.getFailures());
+
+        String maxP99 = System.getProperty("loadtest.max-p99-ms");
+        for (EndpointStats stats : generator.getStats()) {
+            assertTrue(stats.getSucceeded() > 0, stats.getEndpoint() + " never succeeded: " + stats.getStatuses());
+            if (maxP99 != null) {
+                assertTrue(stats.percentileMillis(99) <= Double.parseDouble(maxP99),
+                        stats.getEndpoint() + " p99 " + stats.percentileMillis(99) + " ms");
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.proj.backendrunninglate.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency samples and status counts for one endpoint. Samples are kept raw so
+ * percentiles are exact; a load run records at most a few hundred thousand.
+ */
+public class EndpointStats {
+
+    private final String endpoint;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+    private long[] latenciesMicros = new long[1024];
+    private int count;
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public synchronized void record(int status, long latencyMicros) {
+        if (count == latenciesMicros.length) {
+            latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+        }
+        latenciesMicros[count++] = latencyMicros;
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized long getSucceeded() {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 200 && entry.getKey() < 400)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    public synchronized Map<Integer, Long> getStatuses() {
+        return new TreeMap<>(statuses);
+    }
+
+    public synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latenciesMicros, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.proj.backendrunninglate.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Upstream latency model for {@link RoutesStubServer}. Specs are parsed from
+ * {@code fixed:50}, {@code uniform:20-200} or {@code lognormal:80,0.5}
+ * (median in ms, sigma of the underlying normal).
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    long sampleMillis();
+
+    static LatencyDistribution fixed(long millis) {
+        return () -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    static LatencyDistribution logNormal(double medianMillis, double sigma) {
+        double mu = Math.log(medianMillis);
+        return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] kind = spec.split(":", 2);
+        return switch (kind[0]) {
+            case "fixed" -> fixed(Long.parseLong(kind[1]));
+            case "uniform" -> {
+                String[] bounds = kind[1].split("-");
+                yield uniform(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+            }
+            case "lognormal" -> {
+                String[] params = kind[1].split(",");
+                yield logNormal(Double.parseDouble(params[0]), Double.parseDouble(params[1]));
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        };
+    }
+}
@@ -0,0 +1,250 @@
+package com.proj.backendrunninglate.loadtest;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop commute workload. Each virtual user creates an account and logs
+ * in, so quotas are charged per account as in production, then repeatedly
+ * starts a run, pings its position through {@code /route}, ends the
+ * run and reopens its profile until the duration elapses.
+ */
+public class LoadGenerator {
+
+    static final String CREATE = "POST /accounts/create";
+    static final String LOGIN = "POST /auth/login";
+    static final String START = "POST /run/start";
+    static final String PING = "POST /route";
+    static final String END = "POST /run/end";
+    static final String HISTORY = "GET /accounts/get/{email}";
+    static final String FLOOD_ROUTE = "POST /route (flood)";
+    static final String FLOOD_PREVIEW = "POST /route/generic (flood)";
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final String baseUrl;
+    private final int users;
+    private final Duration duration;
+    private final int pingsPerRun;
+    private final long thinkMillis;
+    private final HttpClient client;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    private int flooders;
+
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    public LoadGenerator(String baseUrl, int users, Duration duration, int pingsPerRun, long thinkMillis) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.duration = duration;
+        this.pingsPerRun = pingsPerRun;
+        this.thinkMillis = thinkMillis;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (String endpoint : List.of(CREATE, LOGIN, START, PING, END, HISTORY)) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    // Misbehaving clients that loop on route lookups with no think time, alongside the regular users
+    public void setFlooders(int flooders) {
+        this.flooders = flooders;
+        stats.putIfAbsent(FLOOD_ROUTE, new EndpointStats(FLOOD_ROUTE));
+        stats.putIfAbsent(FLOOD_PREVIEW, new EndpointStats(FLOOD_PREVIEW));
+    }
+
+    public Map<String, EndpointStats> run() {
+        startedNanos = System.nanoTime();
+        long deadline = startedNanos + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                int user = i;
+                executor.submit(() -> user(user, deadline));
+            }
+            for (int i = 0; i < flooders; i++) {
+                int flooder = i;
+                executor.submit(() -> flood(flooder, deadline));
+            }
+        }
+        finishedNanos = System.nanoTime();
+        return stats;
+    }
+
+    private void user(int user, long deadline) {
+        String email = "runner-" + user + "-" + UUID.randomUUID() + "@load.test";
+        if (!send(CREATE, post("/accounts/create",
+                "{\"name\":\"Runner " + user + "\",\"email\":\"" + email + "\",\"password\":\"load-test\"}"))) {
+            return;
+        }
+        String token = login(email);
+        if (token == null) {
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            double originLat = 45.50 + random.nextDouble(0.05);
+            double originLng = -73.60 + random.nextDouble(0.05);
+            double destinationLat = 45.50 + random.nextDouble(0.05);
+            double destinationLng = -73.60 + random.nextDouble(0.05);
+
+            boolean started = send(START, post("/run/start", token, String.format(Locale.ROOT,
+                    "{\"email\":\"%s\",\"originLat\":%f,\"originLng\":%f,\"destinationLat\":%f,\"destinationLng\":%f,"
+                            + "\"distance\":\"0\",\"neededArrivalTime\":\"%d\"}",
+                    email, originLat, originLng, destinationLat, destinationLng, System.currentTimeMillis() + 1_200_000)));
+            if (!started) {
+                think();
+                continue;
+            }
+
+            for (int ping = 1; ping <= pingsPerRun && System.nanoTime() < deadline; ping++) {
+                think();
+                double progress = (double) ping / (pingsPerRun + 1);
+                send(PING, post("/route", token, String.format(Locale.ROOT,
+                        "{\"email\":\"%s\",\"currentLat\":%f,\"currentLng\":%f,\"destinationLat\":%f,\"destinationLng\":%f}",
+                        email,
+                        originLat + (destinationLat - originLat) * progress,
+                        originLng + (destinationLng - originLng) * progress,
+                        destinationLat, destinationLng)));
+            }
+
+            think();
+            send(END, post("/run/end", token, "{\"email\":\"" + email + "\",\"timeFinished\":" + System.currentTimeMillis() + "}"));
+            send(HISTORY, HttpRequest.newBuilder(URI.create(baseUrl + "/accounts/get/" + email))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build());
+            think();
+        }
+    }
+
+    private void flood(int flooder, long deadline) {
+        String email = "flooder-" + flooder + "-" + UUID.randomUUID() + "@load.test";
+        send(CREATE, post("/accounts/create",
+                "{\"name\":\"Flooder " + flooder + "\",\"email\":\"" + email + "\",\"password\":\"load-test\"}"));
+        String token = login(email);
+        send(START, post("/run/start", token, String.format(Locale.ROOT,
+                "{\"email\":\"%s\",\"originLat\":45.5048,\"originLng\":-73.5772,\"destinationLat\":45.5017,\"destinationLng\":-73.5673,"
+                        + "\"distance\":\"0\",\"neededArrivalTime\":\"%d\"}",
+                email, System.currentTimeMillis() + 1_200_000)));
+
+        String route = "{\"email\":\"" + email + "\",\"currentLat\":45.5048,\"currentLng\":-73.5772,\"destinationLat\":45.5017,\"destinationLng\":-73.5673}";
+        String preview = "{\"currentLat\":45.5048,\"currentLng\":-73.5772,\"destinationLat\":45.5017,\"destinationLng\":-73.5673}";
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            send(FLOOD_ROUTE, post("/route", token, route));
+            send(FLOOD_PREVIEW, post("/route/generic", token, preview));
+        }
+    }
+
+    private HttpRequest post(String path, String json) {
+        return post(path, null, json);
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    // The bearer token, or null when the login failed
+    private String login(String email) {
+        HttpRequest request = post("/auth/login", "{\"email\":\"" + email + "\",\"password\":\"load-test\"}");
+        long start = System.nanoTime();
+        int status;
+        String token = null;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            Matcher matcher = TOKEN.matcher(response.body());
+            if (status == 200 && matcher.find()) {
+                token = matcher.group(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            status = 0;
+        }
+        stats.get(LOGIN).record(status, (System.nanoTime() - start) / 1000);
+        return token;
+    }
+
+    private boolean send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            status = 0;
+        }
+        stats.get(endpoint).record(status, (System.nanoTime() - start) / 1000);
+        return status >= 200 && status < 300;
+    }
+
+    private void think() {
+        if (thinkMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(thinkMillis / 2, thinkMillis * 3 / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void report(PrintStream out) {
+        double seconds = (finishedNanos - startedNanos) / 1_000_000_000.0;
+        out.printf(Locale.ROOT, "%d users for %.1f s%n", users, seconds);
+        out.printf(Locale.ROOT, "%-28s %8s %8s %9s %9s %9s %9s  %s%n",
+                "endpoint", "requests", "ok", "req/s", "p50 ms", "p95 ms", "p99 ms", "statuses");
+        for (String endpoint : List.of(CREATE, LOGIN, START, PING, END, HISTORY, FLOOD_ROUTE, FLOOD_PREVIEW)) {
+            EndpointStats endpointStats = stats.get(endpoint);
+            if (endpointStats == null) {
+                continue;
+            }
+            out.printf(Locale.ROOT, "%-28s %8d %8d %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    endpoint,
+                    endpointStats.getCount(),
+                    endpointStats.getSucceeded(),
+                    endpointStats.getCount() / seconds,
+                    endpointStats.percentileMillis(50),
+                    endpointStats.percentileMillis(95),
+                    endpointStats.percentileMillis(99),
+                    endpointStats.getStatuses());
+        }
+    }
+
+    public List<EndpointStats> getStats() {
+        return new ArrayList<>(stats.values());
+    }
+
+    public EndpointStats getStats(String endpoint) {
+        return stats.get(endpoint);
+    }
+}
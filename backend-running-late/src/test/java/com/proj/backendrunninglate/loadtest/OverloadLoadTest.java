@@ -0,0 +1,73 @@
+package com.proj.backendrunninglate.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regular commuters at phone-like ping rates share the server with clients
+ * looping on route lookups against a slow upstream. Admission control has to
+ * keep run start/end latency bounded by shedding the flood with 429s.
+ */
+@Tag("load")
+@ActiveProfiles({"test", "loadtest"})
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "admission.account.requests-per-minute=30",
+                "admission.account.burst=10"
+        }
+)
+class OverloadLoadTest {
+
+    private static final RoutesStubServer routes = RoutesStubServer.start(
+            LatencyDistribution.parse(System.getProperty("loadtest.routes.latency", "lognormal:250,0.5")),
+            Double.parseDouble(System.getProperty("loadtest.routes.error-rate", "0.01"))
+    );
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void routesStub(DynamicPropertyRegistry registry) {
+        registry.add("google.routes.url", routes::getUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        routes.close();
+    }
+
+    @Test
+    void floodIsShedWhileRunsStayFast() {
+        LoadGenerator generator = new LoadGenerator(
+                "http://localhost:" + port,
+                Integer.getInteger("loadtest.users", 60),
+                Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30)),
+                Integer.getInteger("loadtest.pings-per-run", 3),
+                Long.getLong("loadtest.think-ms", 3000)
+        );
+        generator.setFlooders(Integer.getInteger("loadtest.flooders", 20));
+
+        generator.run();
+        generator.report(System.out);
+
+        EndpointStats start = generator.getStats(LoadGenerator.START);
+        EndpointStats end = generator.getStats(LoadGenerator.END);
+        double maxP99 = Double.parseDouble(System.getProperty("loadtest.max-p99-ms", "2000"));
+
+        assertTrue(start.getSucceeded() > 0, "no run started: " + start.getStatuses());
+        assertTrue(start.percentileMillis(99) <= maxP99, "run start p99 " + start.percentileMillis(99) + " ms");
+        assertTrue(end.percentileMillis(99) <= maxP99, "run end p99 " + end.percentileMillis(99) + " ms");
+        assertTrue(generator.getStats(LoadGenerator.FLOOD_ROUTE).getStatuses().containsKey(429), "flood was never shed");
+    }
+}
@@ -0,0 +1,144 @@
+package com.proj.backendrunninglate.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for routes.googleapis.com. Every computeRoutes call is
+ * delayed by a sample from the latency distribution and fails with a 503 at
+ * the configured rate, so runs can be load tested without spending quota.
+ * Responses carry only the fields named in the request's field mask.
+ */
+public class RoutesStubServer implements AutoCloseable {
+
+    private static final String PATH = "/directions/v2:computeRoutes";
+    private static final byte[] MISSING_FIELD_MASK = "{\"error\":{\"code\":400,\"message\":\"FieldMask is a required parameter.\",\"status\":\"INVALID_ARGUMENT\"}}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR = "{\"error\":{\"code\":503,\"message\":\"The service is currently unavailable.\",\"status\":\"UNAVAILABLE\"}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile LatencyDistribution latency;
+    private volatile double errorRate;
+
+    private RoutesStubServer(HttpServer server, LatencyDistribution latency, double errorRate) {
+        this.server = server;
+        this.latency = latency;
+        this.errorRate = errorRate;
+    }
+
+    public static RoutesStubServer start(LatencyDistribution latency, double errorRate) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+            RoutesStubServer stub = new RoutesStubServer(server, latency, errorRate);
+            // Platform threads: the JDK server reads request bodies inside a monitor, which would pin virtual threads
+            server.setExecutor(Executors.newCachedThreadPool(daemon()));
+            server.createContext(PATH, stub::handle);
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ThreadFactory daemon() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "routes-stub");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    public void setLatency(LatencyDistribution latency) {
+        this.latency = latency;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            calls.increment();
+            exchange.getRequestBody().readAllBytes();
+            Thread.sleep(Math.max(0, latency.sampleMillis()));
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failures.increment();
+                exchange.sendResponseHeaders(503, ERROR.length);
+                exchange.getResponseBody().write(ERROR);
+                return;
+            }
+
+            String fieldMask = exchange.getRequestHeaders().getFirst("X-Goog-FieldMask");
+            if (fieldMask == null || fieldMask.isBlank()) {
+                exchange.sendResponseHeaders(400, MISSING_FIELD_MASK.length);
+                exchange.getResponseBody().write(MISSING_FIELD_MASK);
+                return;
+            }
+
+            byte[] route = route(ThreadLocalRandom.current().nextInt(500, 6000), Set.of(fieldMask.split(",")));
+            exchange.sendResponseHeaders(200, route.length);
+            exchange.getResponseBody().write(route);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Like the real API, only fields named in the mask are returned
+    private static byte[] route(int distanceMeters, Set<String> fieldMask) {
+        List<String> fields = new ArrayList<>();
+        if (fieldMask.contains("routes.distanceMeters")) {
+            fields.add("\"distanceMeters\":" + distanceMeters);
+        }
+        if (fieldMask.contains("routes.legs.steps.distanceMeters")) {
+            StringBuilder steps = new StringBuilder();
+            int remaining = distanceMeters;
+            while (remaining > 0) {
+                int step = Math.min(remaining, 250);
+                steps.append(steps.length() == 0 ? "" : ",").append("{\"distanceMeters\":").append(step).append('}');
+                remaining -= step;
+            }
+            fields.add("\"legs\":[{\"steps\":[" + steps + "]}]");
+        }
+        if (fieldMask.contains("routes.polyline.encodedPolyline")) {
+            fields.add("\"polyline\":{\"encodedPolyline\":\"_p~iF~ps|U_ulLnnqC_mqNvxq`@\"}");
+        }
+        return ("{\"routes\":[{" + String.join(",", fields) + "}]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.proj.backendrunninglate.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutesCallMetricsTest {
+
+    @Test
+    void registersOneTimerPerOutcomeUpFront() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new RoutesCallMetrics(registry);
+
+        for (RoutesCallMetrics.Outcome outcome : RoutesCallMetrics.Outcome.values()) {
+            Timer timer = registry.find("routes.api.calls").tag("outcome", outcome.name().toLowerCase()).timer();
+            assertNotNull(timer, outcome.name());
+            assertEquals(0, timer.count());
+        }
+    }
+
+    @Test
+    void recordsTheCallAgainstItsOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RoutesCallMetrics metrics = new RoutesCallMetrics(registry);
+
+        metrics.record(RoutesCallMetrics.Outcome.SERVER_ERROR, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(50));
+
+        Timer serverError = registry.get("routes.api.calls").tag("outcome", "server_error").timer();
+        assertEquals(1, serverError.count());
+        assertTrue(serverError.totalTime(TimeUnit.MILLISECONDS) >= 50);
+        assertEquals(0, registry.get("routes.api.calls").tag("outcome", "success").timer().count());
+    }
+}
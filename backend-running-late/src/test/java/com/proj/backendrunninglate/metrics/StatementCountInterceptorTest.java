@@ -0,0 +1,53 @@
+package com.proj.backendrunninglate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCountInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StatementCountInterceptor interceptor = new StatementCountInterceptor(registry);
+    private final StatementCounter counter = new StatementCounter();
+
+    private void handle(MockHttpServletRequest request, int statements) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        for (int i = 0; i < statements; i++) {
+            counter.inspect("select " + i);
+        }
+        interceptor.afterCompletion(request, response, new Object(), null);
+    }
+
+    @Test
+    void recordsStatementsPerRequestUnderTheRoutePattern() {
+        // Left over from whatever ran earlier on this thread; preHandle must clear it
+        counter.inspect("select 0");
+
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/profile/a@example.com");
+        first.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/profile/{email}");
+        handle(first, 3);
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/profile/b@example.com");
+        second.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/profile/{email}");
+        handle(second, 1);
+
+        DistributionSummary summary = registry.get("hibernate.statements.per.request").tag("uri", "/profile/{email}").summary();
+        assertEquals(2, summary.count());
+        assertEquals(4, summary.totalAmount());
+        assertEquals(3, summary.max());
+    }
+
+    @Test
+    void unmatchedRequestsShareOneSeries() {
+        handle(new MockHttpServletRequest("GET", "/nope/1"), 0);
+        handle(new MockHttpServletRequest("GET", "/nope/2"), 0);
+
+        assertEquals(1, registry.find("hibernate.statements.per.request").summaries().size());
+        assertEquals(2, registry.get("hibernate.statements.per.request").tag("uri", "UNKNOWN").summary().count());
+    }
+}
@@ -0,0 +1,41 @@
+package com.proj.backendrunninglate.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCounterTest {
+
+    @Test
+    void countsStatementsSinceTheLastReset() {
+        StatementCounter counter = new StatementCounter();
+        StatementCounter.reset();
+
+        assertEquals("select 1", counter.inspect("select 1"));
+        counter.inspect("select 2");
+        assertEquals(2, StatementCounter.current());
+
+        StatementCounter.reset();
+        assertEquals(0, StatementCounter.current());
+    }
+
+    @Test
+    void keepsEachThreadsCountSeparate() throws Exception {
+        StatementCounter counter = new StatementCounter();
+        StatementCounter.reset();
+        counter.inspect("select 1");
+
+        AtomicLong other = new AtomicLong(-1);
+        Thread thread = Thread.ofVirtual().start(() -> {
+            counter.inspect("select 2");
+            counter.inspect("select 3");
+            other.set(StatementCounter.current());
+        });
+        thread.join();
+
+        assertEquals(2, other.get());
+        assertEquals(1, StatementCounter.current());
+    }
+}
@@ -0,0 +1,60 @@
+package com.proj.backendrunninglate.services;
+
+import com.proj.backendrunninglate.auth.PasswordHasher;
+import com.proj.backendrunninglate.auth.RevocationCache;
+import com.proj.backendrunninglate.cluster.PeerRevocations;
+import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.repositories.AccountRepository;
+import com.proj.backendrunninglate.requests.LoginRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class AuthenticationServiceTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void rehashOnLoginKeepsChangesMadeWhileHashing() {
+        String email = "rehash-" + UUID.randomUUID() + "@example.com";
+        // Stored before hashing existed, so the login upgrades it
+        Account account = accountRepository.save(new Account(email, "Runner", "secret"));
+
+        // A run ends on another request while this login is hashing
+        AtomicReference<Runnable> duringHash = new AtomicReference<>(() -> {});
+        PasswordHasher hasher = new PasswordHasher(1000, 1, 8, 5000) {
+            @Override
+            public String hash(String password) {
+                duringHash.get().run();
+                return super.hash(password);
+            }
+        };
+        AuthenticationService authenticationService = new AuthenticationService(
+                accountRepository, hasher, new RevocationCache(100), mock(PeerRevocations.class), "", 60);
+        duringHash.set(() -> {
+            Account current = accountRepository.findByEmail(email).orElseThrow();
+            current.profileChanged();
+            accountRepository.save(current);
+        });
+
+        LoginRequest login = new LoginRequest();
+        login.setEmail(email);
+        login.setPassword("secret");
+        authenticationService.login(login);
+        hasher.destroy();
+
+        Account stored = accountRepository.findById(account.getId()).orElseThrow();
+        assertTrue(stored.getPassword().startsWith("pbkdf2$"), stored.getPassword());
+        assertEquals(1, stored.getProfileVersion());
+    }
+}
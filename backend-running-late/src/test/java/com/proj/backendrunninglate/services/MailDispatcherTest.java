@@ -0,0 +1,83 @@
+package com.proj.backendrunninglate.services;
+
+import com.proj.backendrunninglate.models.MailStatus;
+import com.proj.backendrunninglate.repositories.MailOutboxRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "mail.enabled=true",
+        "mail.dispatch-interval-ms=3600000",
+        "mail.retry-base-ms=0"
+})
+class MailDispatcherTest {
+
+    private static final SmtpStubServer smtp = SmtpStubServer.start();
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @DynamicPropertySource
+    static void smtpStub(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", smtp::getPort);
+    }
+
+    @AfterAll
+    static void stopStub() throws IOException {
+        smtp.close();
+    }
+
+    @BeforeEach
+    void clearOutbox() {
+        mailOutboxRepository.deleteAll();
+        smtp.reset();
+    }
+
+    @Test
+    void batchIsDeliveredOverOneConnectionWithoutDuplicates() {
+        for (int i = 0; i < 5; i++) {
+            mailOutboxService.enqueue("test:" + i, "runner" + i + "@example.com", "Your run summary", "Run " + i);
+        }
+        mailOutboxService.enqueue("test:0", "runner0@example.com", "Your run summary", "Run 0");
+
+        mailDispatcher.dispatch();
+
+        assertEquals(5, smtp.getMessages().size());
+        assertEquals(1, smtp.getConnections());
+        assertEquals(5, mailOutboxRepository.countByStatus(MailStatus.SENT));
+    }
+
+    @Test
+    void rejectedMailIsRetried() {
+        smtp.rejectNext(2);
+        for (int i = 0; i < 3; i++) {
+            mailOutboxService.enqueue("retry:" + i, "runner" + i + "@example.com", "You were late", "Run " + i);
+        }
+
+        mailDispatcher.dispatch();
+        assertEquals(1, mailOutboxRepository.countByStatus(MailStatus.SENT));
+        assertEquals(2, mailOutboxRepository.countByStatus(MailStatus.PENDING));
+
+        mailDispatcher.dispatch();
+        assertEquals(3, mailOutboxRepository.countByStatus(MailStatus.SENT));
+        assertEquals(3, smtp.getMessages().size());
+    }
+}
@@ -0,0 +1,160 @@
+package com.proj.backendrunninglate.services;
+
+import com.proj.backendrunninglate.BackendRunningLateApplication;
+import com.proj.backendrunninglate.loadtest.LatencyDistribution;
+import com.proj.backendrunninglate.loadtest.RoutesStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends concurrent generic-route lookups through Tomcat to a slow Routes stub,
+ * once with Tomcat's platform worker pool and once with
+ * {@code spring.threads.virtual.enabled}, and checks both runs fit the heap.
+ * Run with {@code ./gradlew loadTest}, which pins the heap to 256m.
+ */
+@Tag("load")
+class NavigationServiceLoadTest {
+
+    private static final int REQUESTS = 4000;
+    // Client, Tomcat and stub share the heap, so connections are capped at twice the platform pool
+    private static final int IN_FLIGHT = 400;
+    private static final int PLATFORM_THREADS = 200;
+    private static final long UPSTREAM_LATENCY_MS = 100;
+    private static final double MAX_HEAP_SHARE = Double.parseDouble(System.getProperty("loadtest.max-heap-share", "0.8"));
+    private static final String ROUTE_REQUEST =
+            "{\"currentLat\":45.5048,\"currentLng\":-73.5772,\"destinationLat\":45.5017,\"destinationLng\":-73.5673}";
+
+    private RoutesStubServer routes;
+
+    @BeforeEach
+    void startStub() {
+        routes = RoutesStubServer.start(LatencyDistribution.fixed(UPSTREAM_LATENCY_MS), 0);
+    }
+
+    @AfterEach
+    void stopStub() {
+        routes.close();
+    }
+
+    @Test
+    void virtualThreadsOutlastPlatformPoolAtFixedHeap() throws Exception {
+        Result platform = run("platform", false);
+        Result virtual = run("virtual", true);
+
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        assertEquals(REQUESTS, platform.succeeded);
+        assertEquals(REQUESTS, virtual.succeeded);
+        assertTrue(virtual.throughput() > platform.throughput(),
+                "virtual " + virtual.throughput() + " req/s vs platform " + platform.throughput() + " req/s");
+        assertTrue(platform.peakHeapBytes < maxHeap * MAX_HEAP_SHARE,
+                "platform peak heap " + platform.peakHeapBytes / (1024 * 1024) + " MB of " + maxHeap / (1024 * 1024) + " MB");
+        assertTrue(virtual.peakHeapBytes < maxHeap * MAX_HEAP_SHARE,
+                "virtual peak heap " + virtual.peakHeapBytes / (1024 * 1024) + " MB of " + maxHeap / (1024 * 1024) + " MB");
+    }
+
+    private Result run(String mode, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendRunningLateApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "google.routes.url=" + routes.getUrl(),
+                        "bulkhead.routes.max-concurrent=" + REQUESTS,
+                        "admission.enabled=false"
+                )
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/route/generic"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(ROUTE_REQUEST))
+                    .build();
+
+            System.gc();
+            resetHeapPeak();
+            long start = System.nanoTime();
+            List<Future<Boolean>> futures = new ArrayList<>(REQUESTS);
+            try (HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+                 ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                Semaphore inFlight = new Semaphore(IN_FLIGHT);
+                for (int i = 0; i < REQUESTS; i++) {
+                    inFlight.acquire();
+                    futures.add(callers.submit(() -> {
+                        try {
+                            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    succeeded++;
+                }
+            }
+
+            Result result = new Result(succeeded, elapsedNanos, heapPeak());
+            System.out.printf("%-8s %d requests in %d ms, %.0f req/s, peak heap %d MB%n",
+                    mode, succeeded, elapsedNanos / 1_000_000, result.throughput(), result.peakHeapBytes / (1024 * 1024));
+            return result;
+        }
+    }
+
+    private static void resetHeapPeak() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (isTenured(pool)) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // Eden always peaks near full before a collection; what outlives a request shows in the old generation
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (isTenured(pool)) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static boolean isTenured(MemoryPoolMXBean pool) {
+        return pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported();
+    }
+
+    private record Result(int succeeded, long elapsedNanos, long peakHeapBytes) {
+
+        double throughput() {
+            return succeeded * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
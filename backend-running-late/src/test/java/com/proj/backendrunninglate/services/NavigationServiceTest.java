@@ -0,0 +1,48 @@
+package com.proj.backendrunninglate.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.backendrunninglate.cluster.LiveRunRegistry;
+import com.proj.backendrunninglate.concurrency.Bulkhead;
+import com.proj.backendrunninglate.metrics.RoutesCallMetrics;
+import com.proj.backendrunninglate.requests.GenericRouteRequest;
+import com.proj.backendrunninglate.web.RawJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+class NavigationServiceTest {
+
+    private static final String ROUTES_URL = "http://routes.test/computeRoutes";
+
+    @Test
+    void upstreamErrorsComeBackAsValidJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer routes = MockRestServiceServer.bindTo(restTemplate).build();
+        NavigationService service = new NavigationService(restTemplate, objectMapper, mock(LiveRunRegistry.class),
+                new Bulkhead("routes", 1, 0), new RoutesCallMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "apiKey", "test");
+        ReflectionTestUtils.setField(service, "routesUrl", ROUTES_URL);
+
+        String upstream = "{\n  \"error\": {\"code\": 400, \"message\": \"Invalid \\\"origin\\\"\"}\n}";
+        routes.expect(requestTo(ROUTES_URL))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(upstream));
+
+        ResponseEntity<?> response = service.getGenericRoute(new GenericRouteRequest());
+
+        assertEquals(500, response.getStatusCode().value());
+        RawJson body = assertInstanceOf(RawJson.class, response.getBody());
+        String error = objectMapper.readTree(body.json()).get("error").asText();
+        assertTrue(error.startsWith("400 Bad Request") && error.contains("\"message\""), error);
+    }
+}
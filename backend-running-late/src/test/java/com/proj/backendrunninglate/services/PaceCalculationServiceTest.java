@@ -0,0 +1,69 @@
+package com.proj.backendrunninglate.services;
+
+import com.proj.backendrunninglate.cluster.LiveRunState;
+import com.proj.backendrunninglate.models.ActiveRun;
+import com.proj.backendrunninglate.responses.PaceResponse;
+import com.proj.backendrunninglate.responses.PaceStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaceCalculationServiceTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000;
+
+    private final PaceCalculationService paceCalculationService = new PaceCalculationService();
+
+    // 5 km to cover in 30 min
+    private static LiveRunState run() {
+        ActiveRun run = new ActiveRun();
+        run.setStartTime(new Date(START));
+        run.setNeededArrivalTime(new Date(START + 30 * MINUTE));
+        run.setDistance(5000);
+        return LiveRunState.from("runner@example.com", run);
+    }
+
+    @Test
+    void requiredPaceSpreadsTheRemainingTimeOverTheRemainingDistance() {
+        assertEquals(360, paceCalculationService.requiredSecondsPerKm(5000, new Date(START), new Date(START + 30 * MINUTE)));
+        assertEquals(0, paceCalculationService.requiredSecondsPerKm(0, new Date(START), new Date(START + 30 * MINUTE)));
+        assertThrows(IllegalStateException.class,
+                () -> paceCalculationService.requiredSecondsPerKm(5000, new Date(START + 31 * MINUTE), new Date(START + 30 * MINUTE)));
+    }
+
+    @Test
+    void paceIsFormattedAsMinutesAndPaddedSeconds() {
+        assertEquals("6:00 min/km", paceCalculationService.formatPace(360));
+        assertEquals("5:07 min/km", paceCalculationService.formatPace(307));
+        assertEquals("0:00 min/km", paceCalculationService.formatPace(0));
+    }
+
+    @Test
+    void statusComparesTheRequiredPaceWithThePlan() {
+        // Halfway in distance, a third of the way in time: 2.5 km left in 20 min needs 8:00, slower than planned
+        PaceResponse ahead = paceCalculationService.calculatePace(
+                run().withPosition(0, 0, 0, 0, 2500), new Date(START + 10 * MINUTE));
+        assertEquals(PaceStatus.AHEAD, ahead.getStatus());
+        assertEquals("8:00 min/km", ahead.getPaceNeeded());
+
+        PaceResponse onPace = paceCalculationService.calculatePace(
+                run().withPosition(0, 0, 0, 0, 2500), new Date(START + 15 * MINUTE));
+        assertEquals(PaceStatus.ON_PACE, onPace.getStatus());
+
+        PaceResponse late = paceCalculationService.calculatePace(
+                run().withPosition(0, 0, 0, 0, 4000), new Date(START + 15 * MINUTE));
+        assertEquals(PaceStatus.LATE, late.getStatus());
+        assertEquals(225, late.getSecondsPerKm());
+    }
+
+    @Test
+    void missedArrivalTimeIsLateAndArrivalIsOnPace() {
+        assertEquals(PaceStatus.LATE, paceCalculationService.calculatePace(
+                run().withPosition(0, 0, 0, 0, 100), new Date(START + 31 * MINUTE)).getStatus());
+        assertEquals(PaceStatus.ON_PACE, paceCalculationService.calculatePace(
+                run().withPosition(0, 0, 0, 0, 0), new Date(START + 31 * MINUTE)).getStatus());
+    }
+}
@@ -0,0 +1,186 @@
+package com.proj.backendrunninglate.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.backendrunninglate.cluster.LiveRunRegistry;
+import com.proj.backendrunninglate.loadtest.LatencyDistribution;
+import com.proj.backendrunninglate.loadtest.RoutesStubServer;
+import com.proj.backendrunninglate.models.MailOutbox;
+import com.proj.backendrunninglate.repositories.ActiveRunRepository;
+import com.proj.backendrunninglate.repositories.MailOutboxRepository;
+import com.proj.backendrunninglate.requests.AccountRequest;
+import com.proj.backendrunninglate.requests.SaveRunRequest;
+import com.proj.backendrunninglate.requests.StartRunRequest;
+import com.proj.backendrunninglate.web.RawJson;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "mail.enabled=true",
+        "mail.dispatch-interval-ms=3600000"
+})
+class RunLoggingServiceTest {
+
+    private static RoutesStubServer routes;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private RunLoggingService runLoggingService;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private ActiveRunRepository activeRunRepository;
+
+    @Autowired
+    private LiveRunRegistry liveRunRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void startStub() {
+        routes = RoutesStubServer.start(LatencyDistribution.fixed(0), 0);
+    }
+
+    @DynamicPropertySource
+    static void routesStub(DynamicPropertyRegistry registry) {
+        registry.add("google.routes.url", () -> routes.getUrl());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        routes.close();
+    }
+
+    @Test
+    void startingARunReturnsTheRouteAndRegistersTheRun() throws Exception {
+        String email = account();
+
+        ResponseEntity<?> response = runLoggingService.startRun(startRun(email, String.valueOf(System.currentTimeMillis() + 20 * 60_000)));
+
+        assertEquals(200, response.getStatusCode().value());
+        RawJson route = assertInstanceOf(RawJson.class, response.getBody());
+        int distance = objectMapper.readTree(route.json()).path("routes").path(0).path("distanceMeters").asInt();
+        assertTrue(distance > 0, route.json());
+        assertEquals(distance, liveRunRegistry.get(email).orElseThrow().remainingMeters());
+    }
+
+    @Test
+    void startsThatCannotSucceedDoNotSpendARoutesCall() throws Exception {
+        String email = account();
+        String arrival = String.valueOf(System.currentTimeMillis() + 20 * 60_000);
+        runLoggingService.startRun(startRun(email, arrival));
+        long calls = routes.getCalls();
+
+        assertThrows(IllegalStateException.class, () -> runLoggingService.startRun(startRun(email, arrival)));
+        assertThrows(IllegalArgumentException.class,
+                () -> runLoggingService.startRun(startRun("nobody-" + UUID.randomUUID() + "@example.com", arrival)));
+        assertEquals(calls, routes.getCalls());
+    }
+
+    @Test
+    void concurrentStartsLeaveOneActiveRun() throws Exception {
+        String email = account();
+        String arrival = String.valueOf(System.currentTimeMillis() + 20 * 60_000);
+        // Slow enough that both starts pass the early check before either writes
+        routes.setLatency(LatencyDistribution.fixed(200));
+        int started = 0;
+        try (ExecutorService starters = Executors.newFixedThreadPool(2)) {
+            List<Future<?>> starts = List.of(
+                    starters.submit(() -> runLoggingService.startRun(startRun(email, arrival))),
+                    starters.submit(() -> runLoggingService.startRun(startRun(email, arrival))));
+            for (Future<?> start : starts) {
+                try {
+                    start.get();
+                    started++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+        } finally {
+            routes.setLatency(LatencyDistribution.fixed(0));
+        }
+
+        assertEquals(1, started);
+        // Fails with IncorrectResultSizeDataAccessException if an orphan run was inserted
+        assertTrue(activeRunRepository.findByAccountEmail(email).isPresent());
+    }
+
+    @Test
+    void finishingAfterTheNeededArrivalTimeQueuesTheLateMail() throws Exception {
+        String email = account();
+        long now = System.currentTimeMillis();
+
+        runLoggingService.startRun(startRun(email, String.valueOf(now + 60_000)));
+        SaveRunRequest end = new SaveRunRequest();
+        end.setEmail(email);
+        end.setTimeFinished(new Date(now + 11 * 60_000));
+        runLoggingService.endRun(end);
+
+        List<MailOutbox> mails = mailOutboxRepository.findAll().stream()
+                .filter(mail -> mail.getRecipient().equals(email))
+                .toList();
+        assertEquals(2, mails.size());
+        MailOutbox late = mails.stream().filter(mail -> mail.getSubject().equals("You were late")).findFirst().orElseThrow();
+        assertTrue(late.getBody().contains("10 min after"), late.getBody());
+    }
+
+    @Test
+    void finishingInTimeOnlyQueuesTheSummary() throws Exception {
+        String email = account();
+        long now = System.currentTimeMillis();
+
+        runLoggingService.startRun(startRun(email, String.valueOf(now + 20 * 60_000)));
+        SaveRunRequest end = new SaveRunRequest();
+        end.setEmail(email);
+        end.setTimeFinished(new Date(now + 15 * 60_000));
+        runLoggingService.endRun(end);
+
+        List<MailOutbox> mails = mailOutboxRepository.findAll().stream()
+                .filter(mail -> mail.getRecipient().equals(email))
+                .toList();
+        assertEquals(List.of("Your run summary"), mails.stream().map(MailOutbox::getSubject).toList());
+        // The distance only arrives when the field mask asks for routes.distanceMeters
+        assertTrue(mails.get(0).getBody().matches("(?s).*You ran [1-9]\\d* m.*"), mails.get(0).getBody());
+    }
+
+    private String account() {
+        AccountRequest request = new AccountRequest();
+        request.setName("Runner");
+        request.setEmail("runner-" + UUID.randomUUID() + "@example.com");
+        request.setPassword("secret");
+        return accountService.createAccount(request).getEmail();
+    }
+
+    private static StartRunRequest startRun(String email, String neededArrivalTime) {
+        StartRunRequest request = new StartRunRequest();
+        request.setEmail(email);
+        request.originLat = 45.5048;
+        request.originLng = -73.5772;
+        request.destinationLat = 45.5017;
+        request.destinationLng = -73.5673;
+        request.setNeededArrivalTime(neededArrivalTime);
+        return request;
+    }
+}
@@ -0,0 +1,20 @@
+package com.proj.backendrunninglate.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountKeyFilterTest {
+
+    @Test
+    void decodesTheAccountInThePath() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/pace/a%2Bb%40x.com");
+        new AccountKeyFilter(new ObjectMapper()).doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals("a+b@x.com", AccountKeyFilter.accountOf(request));
+    }
+}
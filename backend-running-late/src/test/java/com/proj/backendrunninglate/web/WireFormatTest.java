@@ -0,0 +1,95 @@
+package com.proj.backendrunninglate.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.proj.backendrunninglate.models.Account;
+import com.proj.backendrunninglate.models.PastRun;
+import com.proj.backendrunninglate.repositories.AccountRepository;
+import com.proj.backendrunninglate.repositories.PastRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class WireFormatTest {
+
+    private static final String EMAIL = "wire@example.com";
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PastRunRepository pastRunRepository;
+
+    @BeforeEach
+    void createAccount() {
+        if (accountRepository.findByEmail(EMAIL).isPresent()) {
+            return;
+        }
+        Account account = accountRepository.save(new Account(EMAIL, "Wire", "secret"));
+        PastRun pastRun = new PastRun(45.5048, -73.5772, 45.5017, -73.5673, 1200, "5:30 min/km", new Date(1_700_000_000_000L));
+        pastRun.setAccount(account);
+        pastRunRepository.save(pastRun);
+    }
+
+    @Test
+    void jsonRemainsTheDefault() throws Exception {
+        mockMvc.perform(get("/accounts/get/" + EMAIL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void cborCarriesTheSameProfileInFewerBytes() throws Exception {
+        MvcResult json = mockMvc.perform(get("/accounts/get/" + EMAIL).accept(MediaType.APPLICATION_JSON)).andReturn();
+        MvcResult cbor = mockMvc.perform(get("/accounts/get/" + EMAIL).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        byte[] jsonBytes = json.getResponse().getContentAsByteArray();
+        byte[] cborBytes = cbor.getResponse().getContentAsByteArray();
+        assertEquals(objectMapper.readTree(jsonBytes), cborMapper.readTree(cborBytes));
+        assertTrue(cborBytes.length < jsonBytes.length, cborBytes.length + " CBOR bytes vs " + jsonBytes.length + " JSON bytes");
+    }
+
+    @Test
+    void rawJsonIsCopiedForJsonAndTranscodedForCbor() throws Exception {
+        RawJson route = new RawJson("{\"routes\":[{\"distanceMeters\":1200,\"polyline\":{\"encodedPolyline\":\"_p~iF~ps|U_ulLnnqC\"}}]}");
+        RawJsonHttpMessageConverter converter = new RawJsonHttpMessageConverter();
+
+        MockHttpOutputMessage json = new MockHttpOutputMessage();
+        converter.write(route, MediaType.APPLICATION_JSON, json);
+        MockHttpOutputMessage cbor = new MockHttpOutputMessage();
+        converter.write(route, MediaType.APPLICATION_CBOR, cbor);
+
+        assertEquals(route.json(), json.getBodyAsString());
+        JsonNode decoded = cborMapper.readTree(cbor.getBodyAsBytes());
+        assertEquals(objectMapper.readTree(route.json()), decoded);
+    }
+}